@@ -0,0 +1,139 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.event.IdentifiedEvent;
+import com.ecommerce.event.InventoryUpdatedEvent;
+import com.ecommerce.event.NotificationEvent;
+import com.ecommerce.event.OrderCreatedEvent;
+import com.ecommerce.event.OrderStatusChangedEvent;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.OrderStatus;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.model.UserRole;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Benchmark Data
+ * Fixed inputs shared by the benchmarks: no clocks or random ids, so every run
+ * measures byte-for-byte the same payloads and results can be compared across builds
+ */
+final class BenchmarkData {
+
+    static final LocalDateTime TIMESTAMP = LocalDateTime.of(2024, 1, 1, 12, 0, 0);
+
+    private BenchmarkData() {
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6YlrSuuxA2P1U3s1jDNB/ay");
+        user.setFirstName("First" + id);
+        user.setLastName("Last" + id);
+        user.setPhoneNumber("+1-555-0100");
+        user.setRole(UserRole.USER);
+        user.setIsActive(true);
+        user.setCreatedAt(TIMESTAMP);
+        user.setUpdatedAt(TIMESTAMP);
+        return user;
+    }
+
+    static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setDescription("Description of product " + id + " with enough text to resemble a real listing");
+        product.setPrice(new BigDecimal("19.99").add(BigDecimal.valueOf(id)));
+        product.setStock(100);
+        product.setCategory("Electronics");
+        product.setBrand("Brand");
+        product.setImageUrl("https://cdn.example.com/products/" + id + ".jpg");
+        product.setSku("SKU-" + id);
+        product.setIsActive(true);
+        product.setCreatedAt(TIMESTAMP);
+        product.setUpdatedAt(TIMESTAMP);
+        return product;
+    }
+
+    static Order order(long id, int itemCount) {
+        Order order = new Order();
+        order.setId(id);
+        order.setOrderNumber("ORD-20240101-" + String.format("%06d", id));
+        order.setUser(user(42L));
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setShippingAddress("1 Main Street, Springfield");
+        order.setBillingAddress("1 Main Street, Springfield");
+        order.setPaymentMethod("CARD");
+        order.setPaymentStatus("PAID");
+        order.setNotes("Leave at the door");
+        order.setCreatedAt(TIMESTAMP);
+        order.setUpdatedAt(TIMESTAMP);
+
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        BigDecimal total = BigDecimal.ZERO;
+        int totalItems = 0;
+        for (int i = 1; i <= itemCount; i++) {
+            Product product = product(i);
+            OrderItem item = new OrderItem();
+            item.setId(id * 100 + i);
+            item.setOrder(order);
+            item.setProduct(product);
+            item.setProductName(product.getName());
+            item.setProductPrice(product.getPrice());
+            item.setQuantity(i);
+            item.setSubtotal(product.getPrice().multiply(BigDecimal.valueOf(i)));
+            items.add(item);
+            total = total.add(item.getSubtotal());
+            totalItems += i;
+        }
+        order.setItems(items);
+        order.setTotalAmount(total);
+        order.setTotalItems(totalItems);
+        return order;
+    }
+
+    /**
+     * One event per type, with a fixed event id (producers always stamp one)
+     */
+    static IdentifiedEvent event(String eventType) {
+        IdentifiedEvent event = eventPayload(eventType);
+        event.setEventId(UUID.nameUUIDFromBytes(eventType.getBytes(StandardCharsets.UTF_8)).toString());
+        return event;
+    }
+
+    private static IdentifiedEvent eventPayload(String eventType) {
+        switch (eventType) {
+            case "order-created":
+                List<OrderCreatedEvent.OrderItemEvent> items = new ArrayList<>();
+                for (int i = 1; i <= 3; i++) {
+                    BigDecimal unitPrice = new BigDecimal("19.99").multiply(BigDecimal.valueOf(i));
+                    items.add(new OrderCreatedEvent.OrderItemEvent((long) i, "Product " + i, i,
+                            unitPrice, unitPrice.multiply(BigDecimal.valueOf(i)), "Electronics"));
+                }
+                BigDecimal total = items.stream().map(OrderCreatedEvent.OrderItemEvent::getSubtotal)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+                return new OrderCreatedEvent(1001L, "ORD-20240101-000001", 42L, total, items,
+                        "1 Main Street, Springfield", TIMESTAMP);
+            case "order-status-changed":
+                return new OrderStatusChangedEvent(1001L, "ORD-20240101-000001", 42L,
+                        "PENDING", "PAID", TIMESTAMP);
+            case "inventory-updated":
+                return new InventoryUpdatedEvent(7L, "Product 7", 120, 118, -2,
+                        "ORDER_CREATED", 1001L, TIMESTAMP);
+            case "notification":
+                return new NotificationEvent(42L, NotificationEvent.TYPE_ORDER_STATUS, 1001L,
+                        "Your order ORD-20240101-000001 is now PAID", TIMESTAMP);
+            default:
+                throw new IllegalArgumentException("Unknown event type: " + eventType);
+        }
+    }
+}
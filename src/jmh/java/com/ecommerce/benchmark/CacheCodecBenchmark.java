@@ -0,0 +1,103 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.config.RedisConfig;
+import com.ecommerce.dto.ProductResponse;
+import com.ecommerce.dto.UserResponse;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache Codec Benchmark
+ * Encoding and decoding of cached values with the JSON serializer shared by
+ * RedisTemplate and the cache manager (type information embedded in every value)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheCodecBenchmark {
+
+    @Param({"product", "user", "user-page"})
+    public String valueType;
+
+    private GenericJackson2JsonRedisSerializer serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        serializer = RedisConfig.jsonRedisSerializer();
+        value = createValue(valueType);
+        encoded = serializer.serialize(value);
+        System.out.printf("%n%s: %d bytes%n", valueType, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    private static Object createValue(String valueType) {
+        switch (valueType) {
+            case "product":
+                return productResponse(BenchmarkData.product(7L));
+            case "user":
+                return userResponse(BenchmarkData.user(42L));
+            case "user-page":
+                // One cached page of the "users" cache
+                List<UserResponse> page = new ArrayList<>();
+                for (long id = 1; id <= 20; id++) {
+                    page.add(userResponse(BenchmarkData.user(id)));
+                }
+                return page;
+            default:
+                throw new IllegalArgumentException("Unknown value type: " + valueType);
+        }
+    }
+
+    private static ProductResponse productResponse(Product product) {
+        ProductResponse response = new ProductResponse();
+        response.setId(product.getId());
+        response.setName(product.getName());
+        response.setDescription(product.getDescription());
+        response.setPrice(product.getPrice());
+        response.setStock(product.getStock());
+        response.setCategory(product.getCategory());
+        response.setBrand(product.getBrand());
+        response.setImageUrl(product.getImageUrl());
+        response.setSku(product.getSku());
+        response.setIsActive(product.getIsActive());
+        response.setCreatedAt(product.getCreatedAt());
+        response.setUpdatedAt(product.getUpdatedAt());
+        return response;
+    }
+
+    private static UserResponse userResponse(User user) {
+        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(),
+                user.getLastName(), user.getPhoneNumber(), user.getRole(), user.getIsActive(),
+                user.getCreatedAt(), user.getUpdatedAt());
+    }
+}
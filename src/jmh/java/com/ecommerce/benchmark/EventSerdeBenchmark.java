@@ -0,0 +1,96 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.event.AvroEventDeserializer;
+import com.ecommerce.event.AvroEventSerializer;
+import com.ecommerce.event.EventSchemaRegistry;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event Serde Benchmark
+ * CPU time per event of the previous JSON path against the Avro binary path;
+ * encoded sizes (value plus type headers) are printed once per trial
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSerdeBenchmark {
+
+    private static final String TOPIC = "benchmark";
+
+    @Param({"order-created", "order-status-changed", "inventory-updated", "notification"})
+    public String eventType;
+
+    private JsonSerializer<Object> jsonSerializer;
+    private JsonDeserializer<Object> jsonDeserializer;
+    private AvroEventSerializer avroSerializer;
+    private AvroEventDeserializer avroDeserializer;
+
+    private Object event;
+    private byte[] jsonBytes;
+    private Headers jsonHeaders;
+    private byte[] avroBytes;
+
+    @Setup
+    public void setup() {
+        jsonSerializer = new JsonSerializer<>();
+        jsonDeserializer = new JsonDeserializer<>();
+        jsonDeserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "*"), false);
+        EventSchemaRegistry registry = new EventSchemaRegistry();
+        avroSerializer = new AvroEventSerializer(registry);
+        avroDeserializer = new AvroEventDeserializer(registry);
+
+        event = BenchmarkData.event(eventType);
+        jsonHeaders = new RecordHeaders();
+        jsonBytes = jsonSerializer.serialize(TOPIC, jsonHeaders, event);
+        avroBytes = avroSerializer.serialize(TOPIC, event);
+
+        int headerBytes = 0;
+        for (Header header : jsonHeaders) {
+            headerBytes += header.key().getBytes(StandardCharsets.UTF_8).length + header.value().length;
+        }
+        System.out.printf("%n%s: json=%d bytes (+%d header bytes), avro=%d bytes%n",
+                          eventType, jsonBytes.length, headerBytes, avroBytes.length);
+    }
+
+    @Benchmark
+    public byte[] jsonSerialize() {
+        return jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public byte[] avroSerialize() {
+        return avroSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public Object jsonDeserialize() {
+        return jsonDeserializer.deserialize(TOPIC, jsonHeaders, jsonBytes);
+    }
+
+    @Benchmark
+    public Object avroDeserialize() {
+        return avroDeserializer.deserialize(TOPIC, avroBytes);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.model.Order;
+import com.ecommerce.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON Serialization Benchmark
+ * Jackson encoding and decoding of API responses and events, with an ObjectMapper
+ * configured the way Spring Boot configures the HTTP message converters
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"order-response", "order-created", "order-status-changed", "inventory-updated", "notification"})
+    public String payloadType;
+
+    private ObjectMapper objectMapper;
+    private Object payload;
+    private Class<?> payloadClass;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Throwable {
+        // Same defaults as Boot: Java time module registered, dates written as ISO strings
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        payload = "order-response".equals(payloadType) ? orderResponse() : BenchmarkData.event(payloadType);
+        payloadClass = payload.getClass();
+        json = objectMapper.writeValueAsBytes(payload);
+        System.out.printf("%n%s: %d bytes%n", payloadType, json.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return objectMapper.readValue(json, payloadClass);
+    }
+
+    private static OrderResponse orderResponse() throws Throwable {
+        return (OrderResponse) MethodHandles.privateLookupIn(OrderService.class, MethodHandles.lookup())
+                .findVirtual(OrderService.class, "convertToResponse",
+                        MethodType.methodType(OrderResponse.class, Order.class))
+                .invoke(new OrderService(), BenchmarkData.order(1001L, 3));
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.util.JwtPrincipal;
+import com.ecommerce.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT Benchmark
+ * Token issuing and the per-request verification in JwtAuthenticationFilter:
+ * the first request with a token (signature check and claim parsing) and repeat
+ * requests answered from JwtUtil's verified-token cache
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtBenchmark {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationThatShouldBeAtLeast256BitsLongForSecurity";
+    // Far more distinct tokens than the uncached instance can hold, so every verify misses
+    private static final int TOKEN_COUNT = 1 << 16;
+
+    private JwtUtil cachedJwt;
+    private JwtUtil uncachedJwt;
+    private String[] tokens;
+    private String token;
+    private int next;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        cachedJwt = jwtUtil(100_000);
+        uncachedJwt = jwtUtil(16);
+        tokens = new String[TOKEN_COUNT];
+        for (int i = 0; i < TOKEN_COUNT; i++) {
+            tokens[i] = cachedJwt.generateToken("user" + i, "USER");
+        }
+        token = tokens[0];
+        cachedJwt.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedJwt.generateToken("user42", "USER");
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyFirstUse() {
+        next = (next + 1) & (TOKEN_COUNT - 1);
+        return uncachedJwt.verify(tokens[next]);
+    }
+
+    @Benchmark
+    public JwtPrincipal verifyCached() {
+        return cachedJwt.verify(token);
+    }
+
+    private static JwtUtil jwtUtil(long cacheMaxSize) throws ReflectiveOperationException {
+        JwtUtil jwtUtil = new JwtUtil();
+        set(jwtUtil, "secret", SECRET);
+        set(jwtUtil, "expiration", TimeUnit.DAYS.toMillis(1));
+        set(jwtUtil, "cacheMaxSize", cacheMaxSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    // Fields are normally injected from application.yml
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
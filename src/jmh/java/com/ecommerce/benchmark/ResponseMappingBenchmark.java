@@ -0,0 +1,90 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.dto.OrderResponse;
+import com.ecommerce.dto.ProductResponse;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.Product;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response Mapping Benchmark
+ * Entity-to-DTO conversion done for every order and product returned by the API
+ * The services' private convertToResponse methods are called through method handles,
+ * which the JIT inlines like direct calls
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+    private static final MethodHandle ORDER_CONVERTER = converter(OrderService.class, Order.class, OrderResponse.class);
+    private static final MethodHandle PRODUCT_CONVERTER = converter(ProductService.class, Product.class, ProductResponse.class);
+
+    // Services use field injection; convertToResponse touches none of the injected beans
+    private OrderService orderService;
+    private ProductService productService;
+    private Product product;
+
+    @Setup
+    public void setup() {
+        orderService = new OrderService();
+        productService = new ProductService();
+        product = BenchmarkData.product(7L);
+    }
+
+    @Benchmark
+    public OrderResponse orderToResponse(OrderState state) throws Throwable {
+        return (OrderResponse) ORDER_CONVERTER.invokeExact(orderService, state.order);
+    }
+
+    @Benchmark
+    public ProductResponse productToResponse() throws Throwable {
+        return (ProductResponse) PRODUCT_CONVERTER.invokeExact(productService, product);
+    }
+
+    /**
+     * Orders of different sizes; only the order benchmark is parameterized by it
+     */
+    @State(Scope.Benchmark)
+    public static class OrderState {
+
+        @Param({"1", "10"})
+        public int orderItems;
+
+        private Order order;
+
+        @Setup
+        public void setup() {
+            order = BenchmarkData.order(1001L, orderItems);
+        }
+    }
+
+    private static MethodHandle converter(Class<?> service, Class<?> entity, Class<?> response) {
+        try {
+            return MethodHandles.privateLookupIn(service, MethodHandles.lookup())
+                    .findVirtual(service, "convertToResponse", MethodType.methodType(response, entity));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("convertToResponse not found on " + service.getSimpleName(), e);
+        }
+    }
+}
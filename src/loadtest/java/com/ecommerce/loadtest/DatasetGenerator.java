@@ -0,0 +1,423 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.model.OrderStatus;
+import com.ecommerce.model.UserRole;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Dataset Generator
+ * Bulk-loads a synthetic, skewed dataset into the application's schema with multi-row INSERTs:
+ * Zipf-distributed product popularity and order counts per user (a few users with thousands of
+ * orders, most with a handful), multi-line orders spread over two years
+ * Sizes grow linearly with the scale factor: at 1.0, 10,000 users, 2,000 products and
+ * 100,000 orders (about 250,000 order lines); the same seed always produces the same rows
+ *
+ * The tables must exist (start the application once with ddl-auto) and be empty; rows get the
+ * ids 1..n. Standalone, e.g. against the docker-compose MySQL:
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.main=com.ecommerce.loadtest.DatasetGenerator
+ *     -Dloadtest.args="url=jdbc:mysql://localhost:3306/ecommerce_db username=root password=root scale-factor=20"
+ */
+public final class DatasetGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    // Password of every generated user, and its BCrypt hash (fixed, so the rows do not depend on a random salt)
+    public static final String PASSWORD = "dataset-password";
+    private static final String PASSWORD_HASH = "$2a$10$k.mZ/Yz9FyDdwGAwXxVlY.4EjBIyfyKqdKjX86L5Em33z/mwz3eOS";
+
+    private static final int USERS_PER_SCALE = 10_000;
+    private static final int PRODUCTS_PER_SCALE = 2_000;
+    private static final int ORDERS_PER_SCALE = 100_000;
+    private static final double PRODUCT_SKEW = 1.1;
+    private static final double USER_SKEW = 0.9;
+    // Share of orders per line count: 1 line 40%, 2 lines 25%, ...
+    private static final double[] LINE_COUNT_SHARES = {0.40, 0.25, 0.15, 0.10, 0.10};
+
+    // Fixed clock so that a seed always yields the same timestamps
+    private static final LocalDateTime ORDERS_UNTIL = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime ORDERS_FROM = ORDERS_UNTIL.minusYears(2);
+    private static final LocalDateTime ACCOUNTS_FROM = ORDERS_FROM.minusYears(1);
+
+    // Rows per INSERT statement and statements per transaction
+    private static final int ROWS_PER_STATEMENT = 500;
+    private static final int STATEMENTS_PER_COMMIT = 10;
+
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Home", "Sports", "Toys", "Clothing",
+        "Beauty", "Garden", "Grocery", "Automotive", "Music", "Office"};
+    private static final String[] FIRST_NAMES = {"Alex", "Sam", "Jordan", "Taylor", "Morgan", "Casey", "Riley",
+        "Jamie", "Avery", "Quinn"};
+    private static final String[] LAST_NAMES = {"Smith", "Chen", "Garcia", "Muller", "Kim", "Rossi", "Silva",
+        "Novak", "Tanaka", "Brown"};
+    private static final String[] PAYMENT_METHODS = {"CARD", "CARD", "CARD", "PAYPAL", "BANK_TRANSFER"};
+
+    private final DataSource dataSource;
+    private final int userCount;
+    private final int productCount;
+    private final int orderCount;
+    private final long seed;
+
+    public DatasetGenerator(DataSource dataSource, double scaleFactor, long seed) {
+        if (scaleFactor <= 0) {
+            throw new IllegalArgumentException("Scale factor must be positive: " + scaleFactor);
+        }
+        this.dataSource = dataSource;
+        this.userCount = Math.max(1, (int) Math.round(USERS_PER_SCALE * scaleFactor));
+        this.productCount = Math.max(LINE_COUNT_SHARES.length, (int) Math.round(PRODUCTS_PER_SCALE * scaleFactor));
+        this.orderCount = (int) Math.round(ORDERS_PER_SCALE * scaleFactor);
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String url = null;
+        String username = null;
+        String password = null;
+        double scaleFactor = 1;
+        long seed = 42;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(0, separator)) {
+                case "url" -> url = value;
+                case "username" -> username = value;
+                case "password" -> password = value;
+                case "scale-factor" -> scaleFactor = Double.parseDouble(value);
+                case "seed" -> seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown dataset setting: " + arg);
+            }
+        }
+        if (url == null) {
+            throw new IllegalArgumentException("url=<jdbc url> is required");
+        }
+        new DatasetGenerator(new DriverManagerDataSource(url, username, password), scaleFactor, seed).generate();
+    }
+
+    /**
+     * Insert the dataset; each table is loaded in transactions of a few thousand rows
+     */
+    public Dataset generate() throws SQLException {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for (String table : new String[] {"users", "products", "orders", "order_items"}) {
+                    checkEmpty(connection, table);
+                }
+                insertUsers(connection);
+                BigDecimal[] prices = insertProducts(connection);
+                Dataset dataset = new Dataset(userCount, productCount, orderCount,
+                        insertOrders(connection, prices), permutation(productCount, new Random(seed + 3)));
+                logger.info("Generated {} users, {} products, {} orders and {} order lines in {}s",
+                        userCount, productCount, orderCount, dataset.orderItems,
+                        Duration.ofNanos(System.nanoTime() - started).toSeconds());
+                return dataset;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void insertUsers(Connection connection) throws SQLException {
+        Random random = new Random(seed);
+        long spacingSeconds = Duration.between(ACCOUNTS_FROM, ORDERS_FROM).toSeconds() / userCount;
+
+        try (MultiRowInsert insert = new MultiRowInsert(connection, null, "users", "id", "username", "email", "password",
+                "first_name", "last_name", "phone_number", "is_active", "role", "created_at", "updated_at")) {
+            for (long id = 1; id <= userCount; id++) {
+                LocalDateTime createdAt = ACCOUNTS_FROM.plusSeconds(id * spacingSeconds);
+                insert.add(id, "user" + id, "user" + id + "@example.com", PASSWORD_HASH,
+                        FIRST_NAMES[random.nextInt(FIRST_NAMES.length)], LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                        String.format("+1-555-%07d", random.nextInt(10_000_000)), Dataset.isActiveUser(id),
+                        UserRole.USER.name(), createdAt, createdAt);
+            }
+        }
+    }
+
+    private BigDecimal[] insertProducts(Connection connection) throws SQLException {
+        Random random = new Random(seed + 1);
+        BigDecimal[] prices = new BigDecimal[productCount + 1];
+        long spacingSeconds = Duration.between(ACCOUNTS_FROM, ORDERS_FROM).toSeconds() / productCount;
+
+        try (MultiRowInsert insert = new MultiRowInsert(connection, null, "products", "id", "name", "description", "price",
+                "stock", "category", "brand", "image_url", "sku", "is_active", "created_at", "updated_at")) {
+            for (int id = 1; id <= productCount; id++) {
+                // Log-uniform between 1.99 and about 2,000
+                prices[id] = BigDecimal.valueOf(Math.round(199 * Math.pow(1_000, random.nextDouble())), 2);
+                LocalDateTime createdAt = ACCOUNTS_FROM.plusSeconds(id * spacingSeconds);
+                insert.add(id, "Product " + id, "Description of product " + id, prices[id],
+                        1_000 + random.nextInt(99_000), CATEGORIES[random.nextInt(CATEGORIES.length)],
+                        "Brand " + random.nextInt(200), "https://cdn.example.com/products/" + id + ".jpg",
+                        "SKU-" + id, random.nextInt(100) >= 3, createdAt, createdAt);
+            }
+        }
+        return prices;
+    }
+
+    private long insertOrders(Connection connection, BigDecimal[] prices) throws SQLException {
+        Random random = new Random(seed + 2);
+        ZipfDistribution userActivity = new ZipfDistribution(userCount, USER_SKEW);
+        ZipfDistribution productPopularity = new ZipfDistribution(productCount, PRODUCT_SKEW);
+        // Popularity ranks map to shuffled ids, so the busiest users and products are not simply the first rows
+        int[] usersByRank = permutation(userCount, new Random(seed + 4));
+        int[] productsByRank = permutation(productCount, new Random(seed + 3));
+        long spacingMillis = Duration.between(ORDERS_FROM, ORDERS_UNTIL).toMillis() / Math.max(1, orderCount);
+        long itemId = 0;
+
+        try (MultiRowInsert orders = new MultiRowInsert(connection, null, "orders", "id", "order_number", "user_id", "status",
+                "total_amount", "total_items", "shipping_address", "billing_address", "payment_method",
+                "payment_status", "notes", "created_at", "updated_at");
+             MultiRowInsert items = new MultiRowInsert(connection, orders, "order_items", "id", "order_id", "product_id",
+                "product_name", "product_price", "quantity", "subtotal")) {
+
+            for (long id = 1; id <= orderCount; id++) {
+                int userId = usersByRank[userActivity.sample(random)];
+                LocalDateTime createdAt = ORDERS_FROM.plus(Duration.ofMillis(id * spacingMillis));
+                int lineCount = lineCount(random);
+                int[] lineProducts = new int[lineCount];
+                int[] quantities = new int[lineCount];
+                BigDecimal total = BigDecimal.ZERO;
+                int totalItems = 0;
+                for (int line = 0; line < lineCount; line++) {
+                    lineProducts[line] = distinctProduct(productsByRank, productPopularity, random, lineProducts, line);
+                    quantities[line] = random.nextInt(10) < 8 ? 1 : 2 + random.nextInt(3);
+                    total = total.add(prices[lineProducts[line]].multiply(BigDecimal.valueOf(quantities[line])));
+                    totalItems += quantities[line];
+                }
+
+                OrderStatus status = status(random, id);
+                String address = (userId % 9_000 + 1) + " Main Street, Springfield";
+                orders.add(id, String.format("ORD-G%09d", id), userId, status.name(), total, totalItems, address,
+                        address, PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)], paymentStatus(status),
+                        random.nextInt(10) == 0 ? "Leave at the door" : null, createdAt, createdAt);
+                for (int line = 0; line < lineCount; line++) {
+                    int productId = lineProducts[line];
+                    items.add(++itemId, id, productId, "Product " + productId, prices[productId], quantities[line],
+                            prices[productId].multiply(BigDecimal.valueOf(quantities[line])));
+                }
+            }
+            items.flush();
+            return itemId;
+        }
+    }
+
+    private static int distinctProduct(int[] productsByRank, ZipfDistribution popularity, Random random,
+                                       int[] chosen, int count) {
+        while (true) {
+            int productId = productsByRank[popularity.sample(random)];
+            boolean duplicate = false;
+            for (int i = 0; i < count; i++) {
+                duplicate |= chosen[i] == productId;
+            }
+            if (!duplicate) {
+                return productId;
+            }
+        }
+    }
+
+    private static int lineCount(Random random) {
+        double pick = random.nextDouble();
+        for (int i = 0; i < LINE_COUNT_SHARES.length; i++) {
+            pick -= LINE_COUNT_SHARES[i];
+            if (pick < 0) {
+                return i + 1;
+            }
+        }
+        return LINE_COUNT_SHARES.length;
+    }
+
+    /**
+     * Orders of the last 2% of the period are still in progress, older ones delivered or cancelled
+     */
+    private OrderStatus status(Random random, long orderId) {
+        int pick = random.nextInt(100);
+        if (orderId > orderCount * 0.98) {
+            return pick < 25 ? OrderStatus.PENDING : pick < 50 ? OrderStatus.CONFIRMED
+                    : pick < 75 ? OrderStatus.PROCESSING : OrderStatus.SHIPPED;
+        }
+        return pick < 7 ? OrderStatus.CANCELLED : OrderStatus.DELIVERED;
+    }
+
+    private static String paymentStatus(OrderStatus status) {
+        switch (status) {
+            case PENDING:
+                return "PENDING";
+            case CANCELLED:
+                return "REFUNDED";
+            default:
+                return "PAID";
+        }
+    }
+
+    /**
+     * ids 1..n in a seeded random order, indexed by rank
+     */
+    private static int[] permutation(int n, Random random) {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 1;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return ids;
+    }
+
+    private static void checkEmpty(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            result.next();
+            if (result.getLong(1) > 0) {
+                throw new IllegalStateException("Table " + table + " is not empty; generate into a fresh schema");
+            }
+        }
+    }
+
+    /**
+     * Generated sizes, and the product popularity used for the orders so that load can follow it
+     */
+    public static final class Dataset {
+
+        public final int users;
+        public final int products;
+        public final int orders;
+        public final long orderItems;
+        private final int[] productsByRank;
+        private final ZipfDistribution productPopularity;
+
+        private Dataset(int users, int products, int orders, long orderItems, int[] productsByRank) {
+            this.users = users;
+            this.products = products;
+            this.orders = orders;
+            this.orderItems = orderItems;
+            this.productsByRank = productsByRank;
+            this.productPopularity = new ZipfDistribution(products, PRODUCT_SKEW);
+        }
+
+        /**
+         * Every 50th account is deactivated (and cannot log in)
+         */
+        public static boolean isActiveUser(long userId) {
+            return userId % 50 != 0;
+        }
+
+        /**
+         * A product id, drawn with the same skew as the generated order lines
+         */
+        public long popularProduct(Random random) {
+            return productsByRank[productPopularity.sample(random)];
+        }
+    }
+
+    /**
+     * Buffers rows of one table and writes them ROWS_PER_STATEMENT at a time as
+     * INSERT ... VALUES (...), (...), committing every STATEMENTS_PER_COMMIT statements
+     * Rows of the parent table (the target of this table's foreign key) are written first
+     */
+    private static final class MultiRowInsert implements AutoCloseable {
+
+        private final Connection connection;
+        private final MultiRowInsert parent;
+        private final String table;
+        private final String[] columns;
+        private final List<Object[]> rows = new ArrayList<>(ROWS_PER_STATEMENT);
+        private final PreparedStatement fullStatement;
+        private int statementsSinceCommit;
+        private long inserted;
+
+        MultiRowInsert(Connection connection, MultiRowInsert parent, String table, String... columns)
+                throws SQLException {
+            this.connection = connection;
+            this.parent = parent;
+            this.table = table;
+            this.columns = columns;
+            this.fullStatement = connection.prepareStatement(sql(ROWS_PER_STATEMENT));
+        }
+
+        void add(Object... values) throws SQLException {
+            rows.add(values);
+            if (rows.size() == ROWS_PER_STATEMENT) {
+                execute(fullStatement);
+            }
+        }
+
+        void flush() throws SQLException {
+            writePending();
+            connection.commit();
+            statementsSinceCommit = 0;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+                logger.info("Inserted {} rows into {}", inserted, table);
+            } finally {
+                fullStatement.close();
+            }
+        }
+
+        private void writePending() throws SQLException {
+            if (parent != null) {
+                parent.writePending();
+            }
+            if (!rows.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(sql(rows.size()))) {
+                    execute(statement);
+                }
+            }
+        }
+
+        private void execute(PreparedStatement statement) throws SQLException {
+            if (parent != null) {
+                parent.writePending();
+            }
+            int index = 1;
+            for (Object[] row : rows) {
+                for (Object value : row) {
+                    statement.setObject(index++, value);
+                }
+            }
+            statement.executeUpdate();
+            inserted += rows.size();
+            rows.clear();
+            if (++statementsSinceCommit == STATEMENTS_PER_COMMIT) {
+                connection.commit();
+                statementsSinceCommit = 0;
+            }
+        }
+
+        private String sql(int rowCount) {
+            String row = "(" + "?, ".repeat(columns.length - 1) + "?)";
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                    .append(" (").append(String.join(", ", columns)).append(") VALUES ");
+            for (int i = 0; i < rowCount; i++) {
+                sql.append(i == 0 ? "" : ", ").append(row);
+            }
+            return sql.toString();
+        }
+    }
+}
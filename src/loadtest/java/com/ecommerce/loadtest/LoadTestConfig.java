@@ -0,0 +1,76 @@
+package com.ecommerce.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load Test Config
+ * Settings of one run, given as key=value arguments (see the loadtest profile in pom.xml)
+ */
+final class LoadTestConfig {
+
+    // Measured phase, after the warm-up (JIT, connection pools, caches)
+    int durationSeconds = 60;
+    int warmupSeconds = 15;
+    // Concurrent virtual users, each with its own account and orders
+    int threads = 32;
+    // Target requests per second over all users; 0 runs closed-loop (next request once the last one returned)
+    int rate = 0;
+    // Size of the generated dataset (DatasetGenerator: 1.0 = 10,000 users, 2,000 products, 100,000 orders)
+    double scaleFactor = 0.1;
+    long seed = 42;
+    TrafficMix mix = TrafficMix.parse("browse:35,view:35,search:15,checkout:10,cancel:5");
+    Path report = Paths.get("target", "loadtest-report.json");
+
+    private LoadTestConfig() {
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            String key = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+            switch (key) {
+                case "duration-seconds" -> config.durationSeconds = positive(key, value);
+                case "warmup-seconds" -> config.warmupSeconds = Integer.parseInt(value);
+                case "threads" -> config.threads = positive(key, value);
+                case "rate" -> config.rate = Integer.parseInt(value);
+                case "scale-factor" -> config.scaleFactor = Double.parseDouble(value);
+                case "seed" -> config.seed = Long.parseLong(value);
+                case "mix" -> config.mix = TrafficMix.parse(value);
+                case "report" -> config.report = Paths.get(value);
+                default -> throw new IllegalArgumentException("Unknown load test setting: " + key);
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Settings as written to the report
+     */
+    Map<String, Object> describe() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("durationSeconds", durationSeconds);
+        settings.put("warmupSeconds", warmupSeconds);
+        settings.put("threads", threads);
+        settings.put("targetRate", rate);
+        settings.put("scaleFactor", scaleFactor);
+        settings.put("seed", seed);
+        settings.put("mix", mix.toString());
+        return settings;
+    }
+
+    private static int positive(String key, String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed <= 0) {
+            throw new IllegalArgumentException(key + " must be positive: " + value);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.loadtest.TrafficMix.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load Test Report
+ * Throughput and latency percentiles per endpoint over the measured phase, merged from all
+ * virtual users and written as JSON (latencies in milliseconds)
+ */
+final class LoadTestReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestReport.class);
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final LoadTestConfig config;
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+    private final double measuredSeconds;
+
+    LoadTestReport(LoadTestConfig config, List<VirtualUser> users, double measuredSeconds) {
+        this.config = config;
+        this.measuredSeconds = measuredSeconds;
+        for (Operation operation : Operation.values()) {
+            Histogram merged = new Histogram(3);
+            long failed = 0;
+            for (VirtualUser user : users) {
+                merged.add(user.latency(operation));
+                failed += user.errors(operation);
+            }
+            if (merged.getTotalCount() > 0) {
+                latencies.put(operation, merged);
+                errors.put(operation, failed);
+            }
+        }
+    }
+
+    void write(ObjectMapper objectMapper) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("config", config.describe());
+        report.put("measuredSeconds", round(measuredSeconds));
+
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (Map.Entry<Operation, Histogram> entry : latencies.entrySet()) {
+            long failed = errors.get(entry.getKey());
+            endpoints.add(summary(entry.getKey().endpoint, entry.getValue(), failed));
+            all.add(entry.getValue());
+            allErrors += failed;
+        }
+        report.put("total", summary("all", all, allErrors));
+        report.put("endpoints", endpoints);
+
+        Path path = config.report.toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+
+        logger.info(String.format("%-24s %10s %8s %10s %10s %10s %10s",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms"));
+        for (Map<String, Object> endpoint : endpoints) {
+            log(endpoint);
+        }
+        log(summary("all", all, allErrors));
+        logger.info("Report written to {}", path);
+    }
+
+    private Map<String, Object> summary(String endpoint, Histogram histogram, long failed) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoint", endpoint);
+        summary.put("requests", histogram.getTotalCount());
+        summary.put("errors", failed);
+        summary.put("throughputPerSecond", round(histogram.getTotalCount() / measuredSeconds));
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", round(histogram.getMean() / NANOS_PER_MILLI));
+        latency.put("p50", millis(histogram, 50));
+        latency.put("p99", millis(histogram, 99));
+        latency.put("p999", millis(histogram, 99.9));
+        latency.put("max", round(histogram.getMaxValue() / NANOS_PER_MILLI));
+        summary.put("latencyMs", latency);
+        return summary;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void log(Map<String, Object> summary) {
+        Map<String, Object> latency = (Map<String, Object>) summary.get("latencyMs");
+        logger.info(String.format("%-24s %10d %8d %10.1f %10.2f %10.2f %10.2f",
+                summary.get("endpoint"), summary.get("requests"), summary.get("errors"),
+                summary.get("throughputPerSecond"), latency.get("p50"), latency.get("p99"), latency.get("p999")));
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return round(histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000d) / 1000d;
+    }
+}
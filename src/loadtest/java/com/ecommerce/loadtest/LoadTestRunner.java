@@ -0,0 +1,117 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.ECommerceApplication;
+import com.ecommerce.loadtest.DatasetGenerator.Dataset;
+import com.ecommerce.service.NegativeLookupCache;
+import com.ecommerce.service.UserAvailabilityFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load Test Runner
+ * Boots the application against LocalStandIns, loads a DatasetGenerator dataset, logs one
+ * generated account in per virtual user, then drives the traffic mix over HTTP and writes a
+ * LoadTestReport
+ *
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="threads=64 rate=2000"
+ */
+public final class LoadTestRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        // DevTools would rerun main in a restart class loader (only a system property turns it off early enough)
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        try (LocalStandIns standIns = LocalStandIns.start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(ECommerceApplication.class)
+                     .run(standIns.applicationArguments())) {
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+            Dataset dataset = new DatasetGenerator(context.getBean(DataSource.class), config.scaleFactor, config.seed)
+                    .generate();
+            // Generated rows bypass the services, so rebuild the filters that track existing ids and names
+            context.getBean(NegativeLookupCache.class).rebuild();
+            context.getBean(UserAvailabilityFilter.class).rebuild();
+
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            List<VirtualUser> users = new ArrayList<>(config.threads);
+            for (long userId = 1; users.size() < config.threads; userId++) {
+                if (userId > dataset.users) {
+                    throw new IllegalArgumentException("Not enough active users for " + config.threads
+                            + " threads; raise scale-factor");
+                }
+                if (Dataset.isActiveUser(userId)) {
+                    users.add(new VirtualUser(client, objectMapper, baseUrl, login(client, objectMapper, baseUrl, userId),
+                            userId, dataset, config.mix, config.seed + userId));
+                }
+            }
+
+            double measuredSeconds = run(config, users);
+            new LoadTestReport(config, users, measuredSeconds).write(objectMapper);
+        }
+    }
+
+    private static double run(LoadTestConfig config, List<VirtualUser> users) throws InterruptedException {
+        long intervalNanos = config.rate > 0 ? TimeUnit.SECONDS.toNanos(users.size()) / config.rate : 0;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+
+        logger.info("Running {} users for {}s after {}s warm-up ({}), mix {}", users.size(), config.durationSeconds,
+                config.warmupSeconds, config.rate > 0 ? config.rate + " req/s" : "closed loop", config.mix);
+        ExecutorService executor = Executors.newFixedThreadPool(users.size());
+        for (VirtualUser user : users) {
+            user.schedule(measureFrom, end, intervalNanos);
+            executor.execute(user);
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(config.warmupSeconds + config.durationSeconds + 60L, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+        return config.durationSeconds;
+    }
+
+    private static String login(HttpClient client, ObjectMapper objectMapper, String baseUrl, long userId)
+            throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("usernameOrEmail", "user" + userId,
+                "password", DatasetGenerator.PASSWORD));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login of user" + userId + " failed: "
+                    + response.statusCode() + " " + response.body());
+        }
+        JsonNode auth = objectMapper.readTree(response.body());
+        return auth.get("token").asText();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.service.KafkaProducerService;
+import com.github.fppt.jedismock.RedisServer;
+import com.github.fppt.jedismock.datastructures.Slice;
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import com.github.fppt.jedismock.storage.OperationExecutorState;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Local Stand-ins
+ * In-process replacements for the docker-compose services: H2 in MySQL mode, a single-node
+ * KRaft Kafka broker and a Redis-protocol server, plus a scratch directory for the event
+ * journal and inventory snapshots
+ * Absolute numbers differ from MySQL/Redis/Kafka on their own hosts; the runs are meant for
+ * comparing builds of the application against each other
+ */
+final class LocalStandIns implements AutoCloseable {
+
+    private static final int PARTITIONS = 3;
+
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final RedisServer redis;
+    private final Path workDir;
+
+    private LocalStandIns(EmbeddedKafkaKraftBroker kafka, RedisServer redis, Path workDir) {
+        this.kafka = kafka;
+        this.redis = redis;
+        this.workDir = workDir;
+    }
+
+    static LocalStandIns start() throws IOException {
+        Path workDir = Files.createTempDirectory("ecommerce-loadtest");
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, PARTITIONS,
+                KafkaProducerService.TOPIC_ORDERS, KafkaProducerService.TOPIC_ORDER_STATUS,
+                KafkaProducerService.TOPIC_INVENTORY, KafkaProducerService.TOPIC_INVENTORY_CHANGES,
+                KafkaProducerService.TOPIC_NOTIFICATIONS);
+        kafka.afterPropertiesSet();
+        RedisServer redis = RedisServer.newRedisServer()
+                .setOptions(ServiceOptions.withInterceptor(LocalStandIns::execute))
+                .start();
+        return new LocalStandIns(kafka, redis, workDir);
+    }
+
+    /**
+     * Application properties pointing at the stand-ins, as command line arguments so they take
+     * precedence over application.yml
+     */
+    String[] applicationArguments() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:ecommerce;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("spring.data.redis.host", redis.getHost());
+        properties.put("spring.data.redis.port", redis.getBindPort());
+        properties.put("spring.kafka.bootstrap-servers", kafka.getBrokersAsString());
+        properties.put("server.port", "0");
+        // Every virtual user logs in and orders far faster than a real client would
+        properties.put("rate-limit.enabled", "false");
+        properties.put("events.publisher.journal.dir", workDir.resolve("event-journal").toString());
+        properties.put("inventory.state-store.snapshot-dir", workDir.resolve("inventory-state").toString());
+        // Request and SQL logging would dominate the measured latencies
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.ecommerce", "WARN");
+        properties.put("logging.level.org.springframework.web", "WARN");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.com.ecommerce.loadtest", "INFO");
+        return properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * The mock answers SUBSCRIBE with one reply listing all of the connection's channels instead
+     * of one reply per channel, which leaves the listener container waiting for confirmations
+     */
+    private static Slice execute(OperationExecutorState state, String command, List<Slice> params) {
+        if (!"subscribe".equals(command) && !"psubscribe".equals(command)) {
+            return MockExecutor.proceed(state, command, params);
+        }
+        ByteArrayOutputStream replies = new ByteArrayOutputStream();
+        for (Slice channel : params) {
+            String reply = new String(MockExecutor.proceed(state, command, List.of(channel)).data(), StandardCharsets.UTF_8);
+            // The reply ends with the connection's subscription count, e.g. ":2\r\n"
+            String count = reply.substring(reply.lastIndexOf(':') + 1, reply.length() - 2);
+            replies.writeBytes(("*3\r\n$" + command.length() + "\r\n" + command + "\r\n$" + channel.length() + "\r\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            replies.writeBytes(channel.data());
+            replies.writeBytes(("\r\n:" + count + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return Slice.create(replies.toByteArray());
+    }
+
+    @Override
+    public void close() throws IOException {
+        redis.stop();
+        kafka.destroy();
+        try (Stream<Path> paths = Files.walk(workDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.loadtest.DatasetGenerator.Dataset;
+import com.ecommerce.loadtest.TrafficMix.Operation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Virtual User
+ * One logged-in customer sending requests from the traffic mix until the run ends
+ * With a target rate, requests are due at fixed intervals and latency is measured from the
+ * due time, so a stalled server shows up in the percentiles instead of just lowering the
+ * request count (coordinated omission)
+ */
+final class VirtualUser implements Runnable {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final int PAGE_SIZE = 20;
+    private static final int MAX_ITEMS_PER_ORDER = 3;
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String token;
+    private final long userId;
+    private final Dataset dataset;
+    private final TrafficMix mix;
+    private final Random random;
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, long[]> errors = new EnumMap<>(Operation.class);
+    // Own orders that can still be cancelled, oldest first
+    private final Deque<Long> openOrders = new ArrayDeque<>();
+
+    private long measureFromNanos;
+    private long endNanos;
+    private long intervalNanos;
+
+    VirtualUser(HttpClient client, ObjectMapper objectMapper, String baseUrl, String token, long userId,
+                Dataset dataset, TrafficMix mix, long seed) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.token = token;
+        this.userId = userId;
+        this.dataset = dataset;
+        this.mix = mix;
+        this.random = new Random(seed);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Histogram(3));
+            errors.put(operation, new long[1]);
+        }
+    }
+
+    /**
+     * Set the schedule before the user is started
+     * intervalNanos 0 sends the next request as soon as the previous one returned
+     */
+    void schedule(long measureFromNanos, long endNanos, long intervalNanos) {
+        this.measureFromNanos = measureFromNanos;
+        this.endNanos = endNanos;
+        this.intervalNanos = intervalNanos;
+    }
+
+    @Override
+    public void run() {
+        long due = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            long start;
+            if (intervalNanos > 0) {
+                start = due;
+                due += intervalNanos;
+                long wait = start - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                start = System.nanoTime();
+            }
+            if (start >= endNanos) {
+                return;
+            }
+
+            Operation operation = mix.next(random);
+            if (operation == Operation.CANCEL && openOrders.isEmpty()) {
+                operation = Operation.CHECKOUT;
+            }
+            boolean succeeded;
+            try {
+                succeeded = send(operation);
+            } catch (IOException e) {
+                succeeded = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (start >= measureFromNanos) {
+                latencies.get(operation).recordValue(System.nanoTime() - start);
+                if (!succeeded) {
+                    errors.get(operation)[0]++;
+                }
+            }
+        }
+    }
+
+    Histogram latency(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    long errors(Operation operation) {
+        return errors.get(operation)[0];
+    }
+
+    private boolean send(Operation operation) throws IOException, InterruptedException {
+        switch (operation) {
+            case BROWSE:
+                int pages = Math.max(1, dataset.products / PAGE_SIZE);
+                return succeeded(exchange(request("/products?activeOnly=true&size=" + PAGE_SIZE
+                        + "&page=" + random.nextInt(pages)).GET()));
+            case VIEW:
+                return succeeded(exchange(request("/products/" + randomProduct()).GET()));
+            case SEARCH:
+                // Generated names are "Product <n>"; a prefix of one or two digits matches a handful of them
+                return succeeded(exchange(request("/products?search=Product%20" + (1 + random.nextInt(99))).GET()));
+            case CHECKOUT:
+                return checkout();
+            case CANCEL:
+                return succeeded(exchange(request("/orders/" + openOrders.pollFirst()).DELETE()));
+            default:
+                throw new IllegalStateException("Unknown operation: " + operation);
+        }
+    }
+
+    private boolean checkout() throws IOException, InterruptedException {
+        ObjectNode order = objectMapper.createObjectNode();
+        order.put("userId", userId);
+        order.put("shippingAddress", "1 Load Test Lane, Springfield");
+        order.put("paymentMethod", "CARD");
+        ArrayNode items = order.putArray("items");
+        int itemCount = 1 + random.nextInt(MAX_ITEMS_PER_ORDER);
+        for (int i = 0; i < itemCount; i++) {
+            items.addObject().put("productId", randomProduct()).put("quantity", 1);
+        }
+
+        HttpResponse<String> response = exchange(request("/orders")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(order))));
+        if (!succeeded(response)) {
+            return false;
+        }
+        JsonNode created = objectMapper.readTree(response.body());
+        openOrders.addLast(created.get("id").asLong());
+        return true;
+    }
+
+    private long randomProduct() {
+        return dataset.popularProduct(random);
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private HttpResponse<String> exchange(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static boolean succeeded(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+}
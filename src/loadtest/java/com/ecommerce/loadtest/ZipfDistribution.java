@@ -0,0 +1,36 @@
+package com.ecommerce.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Zipf Distribution
+ * Ranks 0..n-1 where rank k is drawn with probability proportional to 1/(k+1)^exponent;
+ * with exponent 1 the top 1% of ranks take roughly half of the draws at n = 10,000
+ * Immutable and safe to share; callers bring their own Random
+ */
+final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        cumulative = new double[n];
+        double total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            total += 1d / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= total;
+        }
+    }
+
+    int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+}
@@ -1,5 +1,7 @@
 package com.ecommerce.config;
 
+import com.ecommerce.service.TokenRevocationService;
+import com.ecommerce.util.JwtPrincipal;
 import com.ecommerce.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -19,6 +21,7 @@ import java.util.Collections;
 /**
  * JWT Authentication Filter
  * Intercepts requests and validates JWT tokens
+ * Revoked tokens are rejected from the in-memory revocation lists, without network I/O
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -26,37 +29,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
         
         final String authHeader = request.getHeader("Authorization");
         
-        String username = null;
-        String jwt = null;
+        JwtPrincipal principal = null;
         
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
+                // One verification per token; repeat requests hit JwtUtil's cache
+                principal = jwtUtil.verify(authHeader.substring(7));
+                if (tokenRevocationService.isRevoked(principal)) {
+                    principal = null;
+                }
             } catch (Exception e) {
-                // Invalid token, continue without authentication
+                // Invalid or expired token, continue without authentication
             }
         }
         
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Extract role from token
-            String role = jwtUtil.extractClaim(jwt, claims -> claims.get("role", String.class));
-            
-            if (jwtUtil.validateToken(jwt, username)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                    username,
-                    null,
-                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        if (principal != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                principal.getSubject(),
+                null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + principal.getRole()))
+            );
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         
         chain.doFilter(request, response);
@@ -1,20 +1,38 @@
 package com.ecommerce.config;
 
+import com.ecommerce.event.AvroEventDeserializer;
+import com.ecommerce.event.AvroEventSerializer;
+import com.ecommerce.event.EventSchemaRegistry;
+import com.ecommerce.service.KafkaProducerService;
+import com.ecommerce.util.RetryTopics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
-import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.util.backoff.FixedBackOff;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,22 +49,39 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * Event Schema Registry
+     * Versioned Avro schemas loaded from classpath:schemas, checked for compatibility at startup
+     */
+    @Bean
+    public EventSchemaRegistry eventSchemaRegistry() {
+        return new EventSchemaRegistry();
+    }
+    
     /**
      * Kafka Producer Factory
-     * Configured for JSON serialization
+     * Configured for Avro binary serialization of registered events (JSON for everything else)
      */
     @Bean
-    @SuppressWarnings("unchecked")
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all"); // Wait for all replicas to acknowledge
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 1);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true); // Prevent duplicates
-        return new DefaultKafkaProducerFactory<>(configProps);
+        // Fail fast when the broker is unreachable; EventPublisher spills to its journal instead
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 2000);
+        configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 10000);
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 30000);
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(configProps,
+                new StringSerializer(), new AvroEventSerializer(eventSchemaRegistry()));
+        // Client metrics (kafka.producer.*: send rate, batch size, request latency, errors)
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
     
     /**
@@ -60,34 +95,110 @@ public class KafkaConfig {
     
     /**
      * Kafka Consumer Factory
-     * Configured for JSON deserialization
+     * Configured for Avro binary deserialization, still accepting JSON events
      */
     @Bean
-    @SuppressWarnings("unchecked")
     public ConsumerFactory<String, Object> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*"); // Trust all packages for deserialization
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"); // Read from beginning if no offset
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false); // Manual commit for better control
-        return new DefaultKafkaConsumerFactory<>(props);
+        // Undecodable records reach the listener with a null value instead of failing every poll
+        DefaultKafkaConsumerFactory<String, Object> factory = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new ErrorHandlingDeserializer<>(new AvroEventDeserializer(eventSchemaRegistry())));
+        // Client metrics (kafka.consumer.*: fetch rate and latency, records lag, commit latency)
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
     
     /**
      * Kafka Listener Container Factory
-     * Configured for concurrent message processing
+     * Configured for batch processing: listeners receive every record of a poll
+     * and offsets are committed once per batch
      */
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
-        factory.setConcurrency(3); // Process 3 messages concurrently
-        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE); // Manual acknowledgment
+        factory.setConcurrency(3); // Process 3 partitions concurrently
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH); // Commit after each batch
+        factory.setCommonErrorHandler(batchErrorHandler());
+        return factory;
+    }
+    
+    /**
+     * Retry Listener Container Factory
+     * Batch listener with manual acknowledgment: records not yet due are negatively acknowledged,
+     * which pauses the consumer until they are instead of blocking a thread
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> retryListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(3);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(batchErrorHandler());
         return factory;
     }
+    
+    /**
+     * Batch Error Handler
+     * When a listener throws BatchListenerFailedException, records before the failed one
+     * are committed, the failed record is handed to the next retry topic without blocking
+     * the partition, and the records after it are redelivered
+     */
+    @Bean
+    public DefaultErrorHandler batchErrorHandler() {
+        return new DefaultErrorHandler(deadLetterRecoverer(), new FixedBackOff(0L, 0L));
+    }
+    
+    /**
+     * Dead Letter Recoverer
+     * Routes a failed record to {topic}-retry-1, then to the next tier on each failure
+     * and finally to {topic}-dlt; records that cannot be deserialized go straight to the DLT
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterRecoverer() {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate(),
+                (record, ex) -> new TopicPartition(nextTopic(record), -1));
+        recoverer.setHeadersFunction((record, ex) -> retryHeaders(nextTopic(record)));
+        return recoverer;
+    }
+    
+    /**
+     * Retry and dead-letter topics of every source topic with a shared consumer group
+     * The inventory topics have none: each node's InventoryStateStore reads them in full
+     */
+    @Bean
+    public KafkaAdmin.NewTopics retryTopics() {
+        List<String> sourceTopics = List.of(KafkaProducerService.TOPIC_ORDERS, KafkaProducerService.TOPIC_ORDER_STATUS,
+                KafkaProducerService.TOPIC_NOTIFICATIONS);
+        return new KafkaAdmin.NewTopics(sourceTopics.stream()
+                .flatMap(topic -> RetryTopics.derivedTopics(topic).stream())
+                .map(topic -> TopicBuilder.name(topic).partitions(3).build())
+                .toArray(NewTopic[]::new));
+    }
+    
+    private static String nextTopic(ConsumerRecord<?, ?> record) {
+        boolean undecodable = record.value() == null
+                && record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) != null;
+        return undecodable ? RetryTopics.deadLetterTopic(RetryTopics.sourceTopicOf(record.topic()))
+                : RetryTopics.nextTopic(record.topic());
+    }
+    
+    private static Headers retryHeaders(String destination) {
+        Headers headers = new RecordHeaders();
+        int tier = RetryTopics.tierOf(destination);
+        if (tier > 0) {
+            long dueAt = System.currentTimeMillis() + RetryTopics.delayMs(tier);
+            headers.add(RetryTopics.DUE_AT_HEADER, String.valueOf(dueAt).getBytes(StandardCharsets.UTF_8));
+        }
+        return headers;
+    }
 }
 
@@ -0,0 +1,256 @@
+package com.ecommerce.config;
+
+import com.ecommerce.service.RateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rate Limit Filter
+ * Token-bucket limits on the endpoints that drive BCrypt and MySQL load (login, register,
+ * order creation), per route and per client: the authenticated user, otherwise the IP
+ * Runs after JwtAuthenticationFilter; rejected requests get 429 with Retry-After
+ * Login attempts also take a token from a bucket of the submitted username/email, so
+ * guessing one account's password from many addresses is limited as well. Anyone can
+ * throttle logins to an account that way, but only while they keep sending attempts
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Login bodies are two short strings; anything larger is refused before it is buffered
+    private static final int MAX_LOGIN_BODY_BYTES = 4096;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.login.capacity:10}")
+    private int loginCapacity;
+
+    @Value("${rate-limit.login.refill-per-minute:10}")
+    private double loginRefillPerMinute;
+
+    @Value("${rate-limit.login-account.capacity:10}")
+    private int loginAccountCapacity;
+
+    @Value("${rate-limit.login-account.refill-per-minute:5}")
+    private double loginAccountRefillPerMinute;
+
+    @Value("${rate-limit.register.capacity:5}")
+    private int registerCapacity;
+
+    @Value("${rate-limit.register.refill-per-minute:2}")
+    private double registerRefillPerMinute;
+
+    @Value("${rate-limit.create-order.capacity:20}")
+    private int createOrderCapacity;
+
+    @Value("${rate-limit.create-order.refill-per-minute:30}")
+    private double createOrderRefillPerMinute;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<Rule> rules;
+    private Rule loginRule;
+    private Rule loginAccountRule;
+
+    @PostConstruct
+    public void init() {
+        loginRule = new Rule("login", "POST", "/auth/login", loginCapacity, loginRefillPerMinute);
+        loginAccountRule = new Rule("login-account", "POST", "/auth/login",
+            loginAccountCapacity, loginAccountRefillPerMinute);
+        rules = List.of(
+            loginRule,
+            new Rule("register", "POST", "/auth/register", registerCapacity, registerRefillPerMinute),
+            new Rule("create-order", "POST", "/orders", createOrderCapacity, createOrderRefillPerMinute)
+        );
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Rule rule = enabled ? match(request) : null;
+        if (rule != null) {
+            if (!acquire(rule, clientId(request), response)) {
+                return;
+            }
+            if (rule == loginRule) {
+                byte[] body = request.getInputStream().readNBytes(MAX_LOGIN_BODY_BYTES + 1);
+                if (body.length > MAX_LOGIN_BODY_BYTES) {
+                    response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                    response.getWriter().write("{\"status\":\"error\",\"message\":\"Request body too large\"}");
+                    return;
+                }
+                String account = loginAccount(body);
+                if (account != null && !acquire(loginAccountRule, "account:" + account, response)) {
+                    return;
+                }
+                request = new BufferedBodyRequest(request, body);
+            }
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Take a token from the client's bucket of a rule, answering 429 when there is none
+     */
+    private boolean acquire(Rule rule, String client, HttpServletResponse response) throws IOException {
+        long waitMillis = rateLimiter.tryAcquire(rule.name + ":" + client, rule.capacity, rule.refillPerMinute / 60d);
+        if (waitMillis > 0) {
+            meterRegistry.counter("http.rate_limited", "rule", rule.name).increment();
+            reject(response, waitMillis);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Normalized username/email of a login body, or null when there is none to limit by
+     * (such a request fails validation in the controller anyway)
+     */
+    private String loginAccount(byte[] body) {
+        try {
+            JsonNode value = objectMapper.readTree(body).path("usernameOrEmail");
+            if (!value.isTextual() || value.asText().isBlank()) {
+                return null;
+            }
+            return value.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Rule match(HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (Rule rule : rules) {
+            if (rule.method.equals(request.getMethod()) && rule.path.equals(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Authenticated user if any, otherwise the client address
+     * (behind a proxy, enable server.forward-headers-strategy so this is the real client)
+     */
+    private static String clientId(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long waitMillis) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitMillis + 999) / 1000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":\"error\",\"message\":\"Too many requests\"}");
+    }
+
+    private static final class Rule {
+        private final String name;
+        private final String method;
+        private final String path;
+        private final int capacity;
+        private final double refillPerMinute;
+
+        private Rule(String name, String method, String path, int capacity, double refillPerMinute) {
+            this.name = name;
+            this.method = method;
+            this.path = path;
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+        }
+    }
+
+    /**
+     * Request whose body was read by the filter, replayed to the rest of the chain
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Buffered body is read synchronously");
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
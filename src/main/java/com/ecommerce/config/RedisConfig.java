@@ -1,5 +1,7 @@
 package com.ecommerce.config;
 
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -8,6 +10,7 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -22,6 +25,16 @@ import java.time.Duration;
 @EnableCaching
 public class RedisConfig {
     
+    /**
+     * JSON serializer shared by RedisTemplate and the cache manager
+     * Registers Java time support so LocalDateTime fields of cached DTOs round-trip
+     */
+    public static GenericJackson2JsonRedisSerializer jsonRedisSerializer() {
+        return new GenericJackson2JsonRedisSerializer().configure(mapper -> mapper
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+    
     /**
      * RedisTemplate Configuration
      * Used for direct Redis operations
@@ -36,13 +49,25 @@ public class RedisConfig {
         template.setHashKeySerializer(new StringRedisSerializer());
         
         // Value serializer - JSON
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
-        template.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        GenericJackson2JsonRedisSerializer jsonSerializer = jsonRedisSerializer();
+        template.setValueSerializer(jsonSerializer);
+        template.setHashValueSerializer(jsonSerializer);
         
         template.afterPropertiesSet();
         return template;
     }
     
+    /**
+     * Redis Pub/Sub Listener Container
+     * Shared by components that broadcast invalidations to every node
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+    
     /**
      * Cache Manager Configuration
      * Configures cache expiration and serialization
@@ -52,23 +77,25 @@ public class RedisConfig {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofHours(1)) // Default TTL: 1 hour
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonRedisSerializer()))
                 .disableCachingNullValues(); // Don't cache null values
         
+        // Per-cache entries derive from the defaults so they keep the JSON serializers
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
                 .withCacheConfiguration("products", 
-                    RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(30)))
+                    config.entryTtl(Duration.ofMinutes(30)))
                 .withCacheConfiguration("product", 
-                    RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(15)))
+                    config.entryTtl(Duration.ofMinutes(15))) // Stock is overlaid from ProductStockCache
                 .withCacheConfiguration("orders", 
-                    RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(10)))
+                    config.entryTtl(Duration.ofMinutes(10)))
                 .withCacheConfiguration("order", 
-                    RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofMinutes(5)))
+                    config.entryTtl(Duration.ofMinutes(5)))
                 .withCacheConfiguration("users", 
-                    RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(2)))
+                    config.entryTtl(Duration.ofHours(2)))
                 .withCacheConfiguration("user", 
-                    RedisCacheConfiguration.defaultCacheConfig().entryTtl(Duration.ofHours(1)))
+                    config.entryTtl(Duration.ofHours(1)))
+                .enableStatistics() // cache.gets{result=hit|miss}, cache.puts, cache.removals per cache name
                 .build();
     }
 }
@@ -0,0 +1,140 @@
+package com.ecommerce.config;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Second-Level Cache Invalidator
+ * Broadcasts committed updates and deletes of cached entities over Redis pub/sub
+ * so every other node evicts its local copy
+ */
+@Component
+public class SecondLevelCacheInvalidator
+        implements PostCommitUpdateEventListener, PostCommitDeleteEventListener, MessageListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheInvalidator.class);
+    
+    public static final String CHANNEL = "cache:l2:invalidate";
+    
+    private static final Set<Class<?>> CACHED_ENTITIES = Set.of(Product.class, User.class);
+    
+    // Lets a node skip its own broadcasts: its local cache is already up to date
+    private final String nodeId = UUID.randomUUID().toString();
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+    
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+    
+    private SessionFactoryImplementor sessionFactory;
+    
+    @PostConstruct
+    public void register() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+    
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return CACHED_ENTITIES.contains(persister.getMappedClass());
+    }
+    
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId(), naturalIdChanged(event));
+    }
+    
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId(), true);
+    }
+    
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Nothing was committed, nothing to invalidate
+    }
+    
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Nothing was committed, nothing to invalidate
+    }
+    
+    /**
+     * Evict entities changed on other nodes
+     * Message format: nodeId|entityName|id|naturalIdChanged
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|");
+        if (parts.length != 4 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            sessionFactory.getCache().evictEntityData(parts[1], Long.valueOf(parts[2]));
+            if (Boolean.parseBoolean(parts[3])) {
+                // Natural-id entries are keyed by the old value; drop the region for this entity
+                sessionFactory.getCache().evictNaturalIdData(parts[1]);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to apply cache invalidation: {}", parts[1] + "#" + parts[2], e);
+        }
+    }
+    
+    private void publish(EntityPersister persister, Object id, boolean naturalIdChanged) {
+        if (!CACHED_ENTITIES.contains(persister.getMappedClass())) {
+            return;
+        }
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL,
+                nodeId + "|" + persister.getEntityName() + "|" + id + "|" + naturalIdChanged);
+        } catch (Exception e) {
+            logger.warn("Failed to broadcast cache invalidation: {}#{}", persister.getEntityName(), id, e);
+        }
+    }
+    
+    private boolean naturalIdChanged(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        int[] naturalId = event.getPersister().getNaturalIdentifierProperties();
+        if (dirty == null || naturalId == null) {
+            return dirty == null;
+        }
+        for (int dirtyIndex : dirty) {
+            for (int naturalIdIndex : naturalId) {
+                if (dirtyIndex == naturalIdIndex) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
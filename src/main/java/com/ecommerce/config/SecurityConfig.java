@@ -26,6 +26,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -45,10 +48,14 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers("/health", "/api/health").permitAll()
                 .requestMatchers("/auth/**", "/api/auth/**").permitAll()
+                // Scrape endpoint for Prometheus (restrict at the network level)
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 // Protected endpoints
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // After JWT so authenticated requests are limited per user rather than per IP
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         
         return http.build();
     }
@@ -1,6 +1,7 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.AuthResponse;
+import com.ecommerce.dto.AvailabilityResponse;
 import com.ecommerce.dto.LoginRequest;
 import com.ecommerce.dto.RegisterRequest;
 import com.ecommerce.service.AuthenticationService;
@@ -10,9 +11,14 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Authentication Controller
- * Handles user authentication endpoints (login, register)
+ * Handles user authentication endpoints (login, register, logout)
+ * Responses complete asynchronously, so servlet threads are not held while passwords are hashed
  */
 @RestController
 @RequestMapping("/auth")
@@ -26,13 +32,9 @@ public class AuthController {
      * POST /api/auth/register
      */
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
-        try {
-            AuthResponse response = authenticationService.register(request);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (RuntimeException e) {
-            throw e; // Will be handled by exception handler
-        }
+    public CompletableFuture<ResponseEntity<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
+        return authenticationService.register(request)
+            .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
     }
     
     /**
@@ -40,13 +42,52 @@ public class AuthController {
      * POST /api/auth/login
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        try {
-            AuthResponse response = authenticationService.login(request);
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            throw e; // Will be handled by exception handler
-        }
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+        // Failures (including ServiceBusyException) reach the exception handler
+        return authenticationService.login(request).thenApply(ResponseEntity::ok);
+    }
+    
+    /**
+     * Logout endpoint: revokes the presented token
+     * POST /api/auth/logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        authenticationService.logout(bearerToken(authHeader));
+        return success("Logged out");
+    }
+    
+    /**
+     * Logout on all devices: revokes every token issued to the user so far
+     * POST /api/auth/logout-all
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<Map<String, Object>> logoutAll(
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        authenticationService.logoutEverywhere(bearerToken(authHeader));
+        return success("Logged out on all devices");
+    }
+    
+    /**
+     * Username/email availability check for the sign-up form
+     * GET /api/auth/availability?username=...&email=...
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(authenticationService.checkAvailability(username, email));
+    }
+    
+    private static String bearerToken(String authHeader) {
+        return authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+    }
+    
+    private static ResponseEntity<Map<String, Object>> success(String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", message);
+        response.put("status", "success");
+        return ResponseEntity.ok(response);
     }
 }
-
@@ -0,0 +1,39 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.service.DeadLetterReplayService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dead Letter Controller
+ * Admin endpoints for re-driving records from dead-letter topics
+ */
+@RestController
+@RequestMapping("/admin/dead-letters")
+@PreAuthorize("hasRole('ADMIN')")
+public class DeadLetterController {
+
+    @Autowired
+    private DeadLetterReplayService deadLetterReplayService;
+
+    /**
+     * Replay dead letters of a source topic
+     * POST /api/admin/dead-letters/{topic}/replay?maxRecords=1000
+     */
+    @PostMapping("/{topic}/replay")
+    public ResponseEntity<Map<String, Object>> replay(
+            @PathVariable String topic,
+            @RequestParam(defaultValue = "1000") int maxRecords) {
+        int replayed = deadLetterReplayService.replay(topic, maxRecords);
+        Map<String, Object> response = new HashMap<>();
+        response.put("topic", topic);
+        response.put("replayed", replayed);
+        response.put("status", "success");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,28 +1,48 @@
 package com.ecommerce.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.CompositeHealth;
+import org.springframework.boot.actuate.health.HealthComponent;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Health Check Controller
- * Provides basic health check endpoint for the application
+ * Reports the actuator health (database, Redis, disk) per component; 503 unless UP
+ * Metrics are scraped separately from /api/actuator/prometheus
  */
 @RestController
 @RequestMapping("/health")
 public class HealthController {
 
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> healthCheck() {
+        HealthComponent health = healthEndpoint.health();
+
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
+        response.put("status", health.getStatus().getCode());
         response.put("service", "E-Commerce Backend Platform");
         response.put("version", "1.0.0");
-        return ResponseEntity.ok(response);
+        if (health instanceof CompositeHealth composite) {
+            Map<String, String> components = new LinkedHashMap<>();
+            composite.getComponents().forEach((name, component) ->
+                    components.put(name, component.getStatus().getCode()));
+            response.put("components", components);
+        }
+
+        HttpStatus status = Status.UP.equals(health.getStatus()) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(response);
     }
 }
-
@@ -2,6 +2,7 @@ package com.ecommerce.controller;
 
 import com.ecommerce.dto.ProductRequest;
 import com.ecommerce.dto.ProductResponse;
+import com.ecommerce.dto.StockLevelResponse;
 import com.ecommerce.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -98,6 +99,26 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
     
+    /**
+     * Get the current stock of a product
+     * GET /api/products/{id}/stock
+     */
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<StockLevelResponse> getStockLevel(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.getStockLevel(id));
+    }
+    
+    /**
+     * Get products with low stock
+     * GET /api/products/low-stock?threshold=10&limit=100
+     */
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<StockLevelResponse>> getLowStockProducts(
+            @RequestParam(required = false) Integer threshold,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(productService.getLowStockProducts(threshold, limit));
+    }
+    
     /**
      * Create a new product
      * POST /api/products
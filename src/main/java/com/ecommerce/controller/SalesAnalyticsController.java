@@ -0,0 +1,48 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.SalesStatsResponse;
+import com.ecommerce.dto.SalesWindowResponse;
+import com.ecommerce.service.SalesAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Sales Analytics Controller
+ * Windowed sales metrics served from the in-memory aggregation of order events
+ */
+@RestController
+@RequestMapping("/analytics/sales")
+@PreAuthorize("hasRole('ADMIN')")
+public class SalesAnalyticsController {
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    /**
+     * Sliding window totals with top products and categories
+     * GET /api/analytics/sales?windowMinutes=60&limit=10
+     */
+    @GetMapping
+    public ResponseEntity<SalesStatsResponse> getSlidingStats(
+            @RequestParam(defaultValue = "60") int windowMinutes,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(salesAnalyticsService.getSlidingStats(windowMinutes, limit));
+    }
+
+    /**
+     * Tumbling windows of one series, oldest first
+     * GET /api/analytics/sales/windows?dimension=category&key=Electronics&windowMinutes=5&windows=12
+     */
+    @GetMapping("/windows")
+    public ResponseEntity<List<SalesWindowResponse>> getTumblingWindows(
+            @RequestParam(defaultValue = SalesAnalyticsService.DIMENSION_TOTAL) String dimension,
+            @RequestParam(required = false) String key,
+            @RequestParam(defaultValue = "5") int windowMinutes,
+            @RequestParam(defaultValue = "12") int windows) {
+        return ResponseEntity.ok(salesAnalyticsService.getTumblingWindows(dimension, key, windowMinutes, windows));
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.service.TokenRevocationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token Revocation Controller
+ * Admin endpoints for revoking a user's tokens (e.g. after a credential leak)
+ */
+@RestController
+@RequestMapping("/admin/users")
+@PreAuthorize("hasRole('ADMIN')")
+public class TokenRevocationController {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    /**
+     * Revoke every token issued to a user so far
+     * POST /api/admin/users/{username}/revoke-tokens
+     */
+    @PostMapping("/{username}/revoke-tokens")
+    public ResponseEntity<Map<String, Object>> revokeTokens(@PathVariable String username) {
+        tokenRevocationService.revokeUser(username);
+        Map<String, Object> response = new HashMap<>();
+        response.put("username", username);
+        response.put("status", "success");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,65 +1,83 @@
 package com.ecommerce.controller;
 
-import org.springframework.http.HttpStatus;
+import com.ecommerce.dto.UserResponse;
+import com.ecommerce.dto.UserUpdateRequest;
+import com.ecommerce.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 /**
  * User Controller
- * Handles user-related REST API endpoints
- * TODO: Implement full user authentication and management
+ * Handles user profile REST API endpoints
+ * Listing and batch lookups are for admins and other services; users can read and
+ * update their own profile
  */
 @RestController
 @RequestMapping("/users")
 public class UserController {
 
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Get a page of users
+     * GET /api/users?page=0&size=20
+     */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllUsers() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Get all users endpoint - To be implemented");
-        response.put("status", "success");
-        return ResponseEntity.ok(response);
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<UserResponse>> getAllUsers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(userService.getUsers(page, Math.min(size, 100)));
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getUserById(@PathVariable Long id) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Get user by ID endpoint - To be implemented");
-        response.put("userId", id);
-        response.put("status", "success");
-        return ResponseEntity.ok(response);
+    /**
+     * Get several users at once
+     * GET /api/users/batch?ids=1,2,3
+     */
+    @GetMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<UserResponse>> getUsersByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
     }
 
-    @PostMapping
-    public ResponseEntity<Map<String, Object>> createUser(@RequestBody Map<String, Object> userData) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Create user endpoint - To be implemented");
-        response.put("data", userData);
-        response.put("status", "success");
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    /**
+     * Get user by ID
+     * GET /api/users/{id}
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id, Authentication authentication) {
+        checkSelfOrAdmin(id, authentication);
+        return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    /**
+     * Update a user's profile
+     * PUT /api/users/{id}
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> updateUser(@PathVariable Long id, 
-                                                          @RequestBody Map<String, Object> userData) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Update user endpoint - To be implemented");
-        response.put("userId", id);
-        response.put("data", userData);
-        response.put("status", "success");
-        return ResponseEntity.ok(response);
+    public ResponseEntity<UserResponse> updateUser(@PathVariable Long id,
+                                                   @Valid @RequestBody UserUpdateRequest request,
+                                                   Authentication authentication) {
+        checkSelfOrAdmin(id, authentication);
+        return ResponseEntity.ok(userService.updateProfile(id, request));
     }
 
-    @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteUser(@PathVariable Long id) {
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Delete user endpoint - To be implemented");
-        response.put("userId", id);
-        response.put("status", "success");
-        return ResponseEntity.ok(response);
+    /**
+     * Runs before the profile is loaded, so an unknown id is answered like someone else's
+     */
+    private void checkSelfOrAdmin(Long id, Authentication authentication) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if (!admin && !id.equals(userService.getUserIdByUsername(authentication.getName()))) {
+            throw new AccessDeniedException("Access denied");
+        }
     }
 }
-
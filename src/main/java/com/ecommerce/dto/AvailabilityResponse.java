@@ -0,0 +1,56 @@
+package com.ecommerce.dto;
+
+/**
+ * Availability Response DTO
+ * Whether a username and/or email can still be registered; unchecked fields are null
+ */
+public class AvailabilityResponse {
+    
+    private String username;
+    private Boolean usernameAvailable;
+    private String email;
+    private Boolean emailAvailable;
+    
+    public AvailabilityResponse() {
+    }
+    
+    public AvailabilityResponse(String username, Boolean usernameAvailable, String email, Boolean emailAvailable) {
+        this.username = username;
+        this.usernameAvailable = usernameAvailable;
+        this.email = email;
+        this.emailAvailable = emailAvailable;
+    }
+    
+    // Getters and Setters
+    public String getUsername() {
+        return username;
+    }
+    
+    public void setUsername(String username) {
+        this.username = username;
+    }
+    
+    public Boolean getUsernameAvailable() {
+        return usernameAvailable;
+    }
+    
+    public void setUsernameAvailable(Boolean usernameAvailable) {
+        this.usernameAvailable = usernameAvailable;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public Boolean getEmailAvailable() {
+        return emailAvailable;
+    }
+    
+    public void setEmailAvailable(Boolean emailAvailable) {
+        this.emailAvailable = emailAvailable;
+    }
+}
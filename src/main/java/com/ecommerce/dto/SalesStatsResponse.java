@@ -0,0 +1,48 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+/**
+ * Sales Stats Response DTO
+ * Sliding-window totals with the top products and categories by revenue
+ */
+public class SalesStatsResponse {
+    
+    private int windowMinutes;
+    private SalesWindowResponse total;
+    private List<SalesWindowResponse> topProducts;
+    private List<SalesWindowResponse> topCategories;
+    
+    // Getters and Setters
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+    
+    public void setWindowMinutes(int windowMinutes) {
+        this.windowMinutes = windowMinutes;
+    }
+    
+    public SalesWindowResponse getTotal() {
+        return total;
+    }
+    
+    public void setTotal(SalesWindowResponse total) {
+        this.total = total;
+    }
+    
+    public List<SalesWindowResponse> getTopProducts() {
+        return topProducts;
+    }
+    
+    public void setTopProducts(List<SalesWindowResponse> topProducts) {
+        this.topProducts = topProducts;
+    }
+    
+    public List<SalesWindowResponse> getTopCategories() {
+        return topCategories;
+    }
+    
+    public void setTopCategories(List<SalesWindowResponse> topCategories) {
+        this.topCategories = topCategories;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Sales Window Response DTO
+ * Revenue, order count and units of one key over [windowStart, windowEnd)
+ */
+public class SalesWindowResponse {
+    
+    private String dimension;
+    private String key;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private BigDecimal revenue;
+    private long orderCount;
+    private long units;
+    
+    public SalesWindowResponse() {
+    }
+    
+    public SalesWindowResponse(String dimension, String key, LocalDateTime windowStart, LocalDateTime windowEnd,
+                               BigDecimal revenue, long orderCount, long units) {
+        this.dimension = dimension;
+        this.key = key;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.revenue = revenue;
+        this.orderCount = orderCount;
+        this.units = units;
+    }
+    
+    // Getters and Setters
+    public String getDimension() {
+        return dimension;
+    }
+    
+    public void setDimension(String dimension) {
+        this.dimension = dimension;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public void setKey(String key) {
+        this.key = key;
+    }
+    
+    public LocalDateTime getWindowStart() {
+        return windowStart;
+    }
+    
+    public void setWindowStart(LocalDateTime windowStart) {
+        this.windowStart = windowStart;
+    }
+    
+    public LocalDateTime getWindowEnd() {
+        return windowEnd;
+    }
+    
+    public void setWindowEnd(LocalDateTime windowEnd) {
+        this.windowEnd = windowEnd;
+    }
+    
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+    
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+    
+    public long getOrderCount() {
+        return orderCount;
+    }
+    
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+    
+    public long getUnits() {
+        return units;
+    }
+    
+    public void setUnits(long units) {
+        this.units = units;
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.dto;
+
+/**
+ * Stock Level Response DTO
+ * Current stock of one product, served from the in-process inventory view
+ */
+public class StockLevelResponse {
+    
+    private Long productId;
+    private Integer stock;
+    
+    public StockLevelResponse() {
+    }
+    
+    public StockLevelResponse(Long productId, Integer stock) {
+        this.productId = productId;
+        this.stock = stock;
+    }
+    
+    // Getters and Setters
+    public Long getProductId() {
+        return productId;
+    }
+    
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Integer getStock() {
+        return stock;
+    }
+    
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+}
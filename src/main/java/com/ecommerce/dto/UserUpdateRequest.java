@@ -0,0 +1,55 @@
+package com.ecommerce.dto;
+
+import jakarta.validation.constraints.Email;
+
+/**
+ * User Profile Update Request DTO
+ * Fields left null are not changed
+ */
+public class UserUpdateRequest {
+    
+    @Email(message = "Email should be valid")
+    private String email;
+    
+    private String firstName;
+    
+    private String lastName;
+    
+    private String phoneNumber;
+    
+    public UserUpdateRequest() {
+    }
+    
+    // Getters and Setters
+    public String getEmail() {
+        return email;
+    }
+    
+    public void setEmail(String email) {
+        this.email = email;
+    }
+    
+    public String getFirstName() {
+        return firstName;
+    }
+    
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+    
+    public String getLastName() {
+        return lastName;
+    }
+    
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+    
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+    
+    public void setPhoneNumber(String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+}
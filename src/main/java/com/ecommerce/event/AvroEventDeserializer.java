@@ -0,0 +1,81 @@
+package com.ecommerce.event;
+
+import org.apache.avro.Schema;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Avro Event Deserializer
+ * Decodes Avro single-object encoded events into the latest version of their class,
+ * resolving the writer schema by fingerprint; JSON payloads are passed to the JSON deserializer
+ */
+public class AvroEventDeserializer implements Deserializer<Object> {
+
+    private static final byte MAGIC_0 = (byte) 0xC3;
+    private static final byte MAGIC_1 = (byte) 0x01;
+    private static final int HEADER_LENGTH = 10;
+
+    private final EventSchemaRegistry registry;
+    private final JsonDeserializer<Object> fallback = new JsonDeserializer<>();
+    private final Map<String, BinaryMessageDecoder<Object>> decoders = new ConcurrentHashMap<>();
+
+    public AvroEventDeserializer(EventSchemaRegistry registry) {
+        this.registry = registry;
+        Map<String, Object> props = new HashMap<>();
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.ecommerce.event");
+        fallback.configure(props, false);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (!isSingleObjectEncoded(data)) {
+            return headers != null ? fallback.deserialize(topic, headers, data) : fallback.deserialize(topic, data);
+        }
+        long fingerprint = ByteBuffer.wrap(data, 2, 8).order(ByteOrder.LITTLE_ENDIAN).getLong();
+        Schema writerSchema = registry.findByFingerprint(fingerprint);
+        if (writerSchema == null) {
+            throw new SerializationException("Unknown schema fingerprint " + fingerprint + " on topic " + topic);
+        }
+        try {
+            return decoders.computeIfAbsent(writerSchema.getFullName(), name -> createDecoder(writerSchema)).decode(data);
+        } catch (Exception e) {
+            throw new SerializationException("Failed to decode " + writerSchema.getFullName()
+                    + " from topic " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        fallback.close();
+    }
+
+    private static boolean isSingleObjectEncoded(byte[] data) {
+        return data.length >= HEADER_LENGTH && data[0] == MAGIC_0 && data[1] == MAGIC_1;
+    }
+
+    /**
+     * Decoder that reads any registered version into the latest schema of the event class
+     */
+    private BinaryMessageDecoder<Object> createDecoder(Schema writerSchema) {
+        Class<?> eventClass = registry.getModel().getClass(writerSchema);
+        Schema readerSchema = registry.latestSchema(eventClass);
+        return new BinaryMessageDecoder<>(registry.getModel(), readerSchema, registry);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.event;
+
+import org.apache.avro.Schema;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Avro Event Serializer
+ * Writes registered event types in Avro single-object encoding (magic bytes,
+ * schema fingerprint, binary body); raw byte arrays are passed through and
+ * anything else falls back to JSON
+ */
+public class AvroEventSerializer implements Serializer<Object> {
+
+    private final EventSchemaRegistry registry;
+    private final JsonSerializer<Object> fallback = new JsonSerializer<>();
+    private final Map<Class<?>, BinaryMessageEncoder<Object>> encoders = new ConcurrentHashMap<>();
+
+    public AvroEventSerializer(EventSchemaRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        fallback.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (data instanceof byte[]) {
+            // Already encoded, e.g. dead letters being republished
+            return (byte[]) data;
+        }
+        BinaryMessageEncoder<Object> encoder = encoders.computeIfAbsent(data.getClass(), this::createEncoder);
+        if (encoder == null) {
+            return headers != null ? fallback.serialize(topic, headers, data) : fallback.serialize(topic, data);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            encoder.encode(data, out);
+            return out.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to encode " + data.getClass().getName()
+                    + " for topic " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        fallback.close();
+    }
+
+    private BinaryMessageEncoder<Object> createEncoder(Class<?> eventClass) {
+        Schema schema = registry.latestSchema(eventClass);
+        return schema != null ? new BinaryMessageEncoder<>(registry.getModel(), schema) : null;
+    }
+}
@@ -0,0 +1,170 @@
+package com.ecommerce.event;
+
+import org.apache.avro.Conversions;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.data.TimeConversions;
+import org.apache.avro.message.SchemaStore;
+import org.apache.avro.reflect.ReflectData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Event Schema Registry
+ * File-based stand-in for a schema registry: loads versioned Avro schemas from
+ * schemas/{subject}/v{N}.avsc, checks each version is compatible with the previous
+ * one, and resolves writer schemas by fingerprint when decoding
+ */
+public class EventSchemaRegistry implements SchemaStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSchemaRegistry.class);
+
+    public static final String DEFAULT_LOCATION = "classpath*:schemas/*/v*.avsc";
+
+    private static final Pattern SCHEMA_PATH = Pattern.compile("schemas/([^/]+)/v(\\d+)\\.avsc$");
+
+    private final ReflectData model;
+    private final Map<String, List<Schema>> versionsBySubject = new TreeMap<>();
+    private final Map<Long, Schema> schemasByFingerprint = new HashMap<>();
+    private final Map<Class<?>, Schema> latestByClass = new HashMap<>();
+
+    public EventSchemaRegistry() {
+        this(DEFAULT_LOCATION);
+    }
+
+    public EventSchemaRegistry(String locationPattern) {
+        this.model = createModel(EventSchemaRegistry.class.getClassLoader());
+        load(locationPattern);
+    }
+
+    /**
+     * Data model used to read and write event classes
+     * Maps BigDecimal to decimal and LocalDateTime to local-timestamp-micros
+     */
+    public ReflectData getModel() {
+        return model;
+    }
+
+    /**
+     * Latest registered schema for an event class, or null when the class is not registered
+     */
+    public Schema latestSchema(Class<?> eventClass) {
+        return latestByClass.get(eventClass);
+    }
+
+    /**
+     * All registered versions of a subject, oldest first
+     */
+    public List<Schema> versions(String subject) {
+        return versionsBySubject.getOrDefault(subject, Collections.emptyList());
+    }
+
+    @Override
+    public Schema findByFingerprint(long fingerprint) {
+        return schemasByFingerprint.get(fingerprint);
+    }
+
+    private void load(String locationPattern) {
+        Map<String, TreeMap<Integer, Schema>> subjects = new TreeMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(locationPattern)) {
+                Matcher matcher = SCHEMA_PATH.matcher(resource.getURL().getPath());
+                if (!matcher.find()) {
+                    continue;
+                }
+                try (InputStream in = resource.getInputStream()) {
+                    Schema schema = new Schema.Parser().parse(in);
+                    subjects.computeIfAbsent(matcher.group(1), s -> new TreeMap<>())
+                            .put(Integer.parseInt(matcher.group(2)), schema);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load event schemas from " + locationPattern, e);
+        }
+
+        subjects.forEach((subject, versions) -> {
+            checkCompatibility(subject, versions);
+            for (Schema schema : versions.values()) {
+                schemasByFingerprint.put(SchemaNormalization.parsingFingerprint64(schema), schema);
+            }
+            Schema latest = versions.lastEntry().getValue();
+            Class<?> eventClass = model.getClass(latest);
+            if (eventClass == null) {
+                throw new IllegalStateException("No event class for schema " + latest.getFullName()
+                        + " (subject " + subject + ")");
+            }
+            latestByClass.put(eventClass, latest);
+            versionsBySubject.put(subject, List.copyOf(versions.values()));
+            logger.info("Registered event schema: subject={}, versions={}, class={}",
+                       subject, versions.keySet(), eventClass.getName());
+        });
+    }
+
+    /**
+     * Every version must be able to read data written with the previous one and vice versa,
+     * so producers and consumers can be upgraded in any order
+     */
+    private static void checkCompatibility(String subject, TreeMap<Integer, Schema> versions) {
+        Map.Entry<Integer, Schema> previous = null;
+        for (Map.Entry<Integer, Schema> current : versions.entrySet()) {
+            if (previous != null) {
+                List<String> problems = new ArrayList<>();
+                describe(problems, "backward", SchemaCompatibility.checkReaderWriterCompatibility(
+                        current.getValue(), previous.getValue()));
+                describe(problems, "forward", SchemaCompatibility.checkReaderWriterCompatibility(
+                        previous.getValue(), current.getValue()));
+                if (!problems.isEmpty()) {
+                    throw new IllegalStateException("Schema " + subject + " v" + current.getKey()
+                            + " is not compatible with v" + previous.getKey() + ": " + problems);
+                }
+            }
+            previous = current;
+        }
+    }
+
+    private static void describe(List<String> problems, String direction,
+                                 SchemaCompatibility.SchemaPairCompatibility result) {
+        for (SchemaCompatibility.Incompatibility incompatibility
+                : result.getResult().getIncompatibilities()) {
+            problems.add(direction + ": " + incompatibility.getMessage()
+                    + " at " + incompatibility.getLocation());
+        }
+    }
+
+    private static ReflectData createModel(ClassLoader classLoader) {
+        ReflectData model = new ReflectData(classLoader);
+        model.addLogicalTypeConversion(new RescalingDecimalConversion());
+        model.addLogicalTypeConversion(new TimeConversions.LocalTimestampMicrosConversion());
+        return model;
+    }
+
+    /**
+     * Decimal conversion that rounds values to the schema scale instead of rejecting them
+     */
+    private static final class RescalingDecimalConversion extends Conversions.DecimalConversion {
+        @Override
+        public ByteBuffer toBytes(BigDecimal value, Schema schema, LogicalType type) {
+            int scale = ((LogicalTypes.Decimal) type).getScale();
+            return super.toBytes(value.setScale(scale, RoundingMode.HALF_UP), schema, type);
+        }
+    }
+}
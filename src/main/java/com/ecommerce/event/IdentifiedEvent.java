@@ -0,0 +1,13 @@
+package com.ecommerce.event;
+
+/**
+ * Identified Event
+ * Implemented by every event published to Kafka; the producer assigns a random id once,
+ * so redeliveries of the same event carry the same id and consumers can drop them
+ */
+public interface IdentifiedEvent {
+    
+    String getEventId();
+    
+    void setEventId(String eventId);
+}
@@ -6,8 +6,9 @@ import java.time.LocalDateTime;
  * Inventory Updated Event
  * Published when product inventory is updated
  */
-public class InventoryUpdatedEvent {
+public class InventoryUpdatedEvent implements IdentifiedEvent {
     
+    private String eventId; // Assigned by the producer (schema v2)
     private Long productId;
     private String productName;
     private Integer oldStock;
@@ -15,6 +16,7 @@ public class InventoryUpdatedEvent {
     private Integer quantityChanged;
     private String reason; // ORDER_CREATED, ORDER_CANCELLED, MANUAL_UPDATE, etc.
     private Long orderId; // Optional: related order ID
+    private Long stockVersion; // Product stock version after the change (schema v3)
     private LocalDateTime updatedAt;
     
     public InventoryUpdatedEvent() {
@@ -34,6 +36,16 @@ public class InventoryUpdatedEvent {
     }
     
     // Getters and Setters
+    @Override
+    public String getEventId() {
+        return eventId;
+    }
+    
+    @Override
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+    
     public Long getProductId() {
         return productId;
     }
@@ -97,5 +109,12 @@ public class InventoryUpdatedEvent {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getStockVersion() {
+        return stockVersion;
+    }
+    
+    public void setStockVersion(Long stockVersion) {
+        this.stockVersion = stockVersion;
+    }
 }
-
@@ -0,0 +1,83 @@
+package com.ecommerce.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notification Event
+ * Published for every message addressed to a user; consumers coalesce them per user
+ */
+public class NotificationEvent implements IdentifiedEvent {
+    
+    public static final String TYPE_ORDER_STATUS = "ORDER_STATUS";
+    public static final String TYPE_GENERAL = "GENERAL";
+    
+    private String eventId; // Assigned by the producer (schema v2)
+    private Long userId;
+    private String type;
+    private Long referenceId; // e.g. the order a status notification is about
+    private String message;
+    private LocalDateTime createdAt;
+    
+    public NotificationEvent() {
+    }
+    
+    public NotificationEvent(Long userId, String type, Long referenceId,
+                             String message, LocalDateTime createdAt) {
+        this.userId = userId;
+        this.type = type;
+        this.referenceId = referenceId;
+        this.message = message;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    @Override
+    public String getEventId() {
+        return eventId;
+    }
+    
+    @Override
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public Long getReferenceId() {
+        return referenceId;
+    }
+    
+    public void setReferenceId(Long referenceId) {
+        this.referenceId = referenceId;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
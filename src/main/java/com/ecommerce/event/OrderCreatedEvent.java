@@ -8,8 +8,9 @@ import java.util.List;
  * Order Created Event
  * Published when a new order is created
  */
-public class OrderCreatedEvent {
+public class OrderCreatedEvent implements IdentifiedEvent {
     
+    private String eventId; // Assigned by the producer (schema v3)
     private Long orderId;
     private String orderNumber;
     private Long userId;
@@ -34,6 +35,16 @@ public class OrderCreatedEvent {
     }
     
     // Getters and Setters
+    @Override
+    public String getEventId() {
+        return eventId;
+    }
+    
+    @Override
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+    
     public Long getOrderId() {
         return orderId;
     }
@@ -99,17 +110,24 @@ public class OrderCreatedEvent {
         private Integer quantity;
         private BigDecimal unitPrice;
         private BigDecimal subtotal;
+        private String category; // Added in schema v2
         
         public OrderItemEvent() {
         }
         
         public OrderItemEvent(Long productId, String productName, Integer quantity,
                              BigDecimal unitPrice, BigDecimal subtotal) {
+            this(productId, productName, quantity, unitPrice, subtotal, null);
+        }
+        
+        public OrderItemEvent(Long productId, String productName, Integer quantity,
+                             BigDecimal unitPrice, BigDecimal subtotal, String category) {
             this.productId = productId;
             this.productName = productName;
             this.quantity = quantity;
             this.unitPrice = unitPrice;
             this.subtotal = subtotal;
+            this.category = category;
         }
         
         // Getters and Setters
@@ -152,6 +170,14 @@ public class OrderCreatedEvent {
         public void setSubtotal(BigDecimal subtotal) {
             this.subtotal = subtotal;
         }
+        
+        public String getCategory() {
+            return category;
+        }
+        
+        public void setCategory(String category) {
+            this.category = category;
+        }
     }
 }
 
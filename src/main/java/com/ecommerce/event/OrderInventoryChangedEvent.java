@@ -0,0 +1,146 @@
+package com.ecommerce.event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Order Inventory Changed Event
+ * Published once per order with the stock changes of all its lines
+ */
+public class OrderInventoryChangedEvent implements IdentifiedEvent {
+
+    private String eventId; // Assigned by the producer (schema v2)
+    private Long orderId;
+    private String reason; // ORDER_CREATED, ORDER_UPDATED, ORDER_CANCELLED, ORDER_DELETED
+    private List<StockChange> changes;
+    private LocalDateTime updatedAt;
+
+    public OrderInventoryChangedEvent() {
+    }
+
+    public OrderInventoryChangedEvent(Long orderId, String reason, List<StockChange> changes,
+                                      LocalDateTime updatedAt) {
+        this.orderId = orderId;
+        this.reason = reason;
+        this.changes = changes;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    @Override
+    public String getEventId() {
+        return eventId;
+    }
+    
+    @Override
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+    
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public List<StockChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<StockChange> changes) {
+        this.changes = changes;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Stock Change (nested class for one order line)
+     * quantityChanged is negative when stock was deducted and positive when restored
+     */
+    public static class StockChange {
+        private Long productId;
+        private String productName;
+        private Integer oldStock;
+        private Integer newStock;
+        private Integer quantityChanged;
+        private Long stockVersion; // Product stock version after the change (schema v3)
+
+        public StockChange() {
+        }
+
+        public StockChange(Long productId, String productName, Integer oldStock,
+                           Integer newStock, Integer quantityChanged, Long stockVersion) {
+            this.productId = productId;
+            this.productName = productName;
+            this.oldStock = oldStock;
+            this.newStock = newStock;
+            this.quantityChanged = quantityChanged;
+            this.stockVersion = stockVersion;
+        }
+
+        // Getters and Setters
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public String getProductName() {
+            return productName;
+        }
+
+        public void setProductName(String productName) {
+            this.productName = productName;
+        }
+
+        public Integer getOldStock() {
+            return oldStock;
+        }
+
+        public void setOldStock(Integer oldStock) {
+            this.oldStock = oldStock;
+        }
+
+        public Integer getNewStock() {
+            return newStock;
+        }
+
+        public void setNewStock(Integer newStock) {
+            this.newStock = newStock;
+        }
+
+        public Integer getQuantityChanged() {
+            return quantityChanged;
+        }
+
+        public void setQuantityChanged(Integer quantityChanged) {
+            this.quantityChanged = quantityChanged;
+        }
+
+        public Long getStockVersion() {
+            return stockVersion;
+        }
+
+        public void setStockVersion(Long stockVersion) {
+            this.stockVersion = stockVersion;
+        }
+    }
+}
@@ -6,8 +6,9 @@ import java.time.LocalDateTime;
  * Order Status Changed Event
  * Published when order status is updated
  */
-public class OrderStatusChangedEvent {
+public class OrderStatusChangedEvent implements IdentifiedEvent {
     
+    private String eventId; // Assigned by the producer (schema v2)
     private Long orderId;
     private String orderNumber;
     private Long userId;
@@ -30,6 +31,16 @@ public class OrderStatusChangedEvent {
     }
     
     // Getters and Setters
+    @Override
+    public String getEventId() {
+        return eventId;
+    }
+    
+    @Override
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+    
     public Long getOrderId() {
         return orderId;
     }
@@ -0,0 +1,19 @@
+package com.ecommerce.exception;
+
+/**
+ * Service Busy Exception
+ * Thrown when a bounded resource rejects work; answered with 503 and a Retry-After header
+ */
+public class ServiceBusyException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
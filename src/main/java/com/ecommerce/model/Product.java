@@ -5,6 +5,11 @@ import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,9 +17,12 @@ import java.time.LocalDateTime;
 /**
  * Product Entity
  * Represents a product in the e-commerce system
+ * Held in the Hibernate second-level cache; SKU lookups go through the natural-id cache
  */
 @Entity
 @Table(name = "products")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-entity")
+@NaturalIdCache(region = "product-natural-id")
 public class Product {
     
     @Id
@@ -49,6 +57,7 @@ public class Product {
     @Column(name = "image_url")
     private String imageUrl;
     
+    @NaturalId(mutable = true)
     @Column(name = "sku", unique = true)
     @Size(max = 50)
     private String sku; // Stock Keeping Unit
@@ -56,6 +65,11 @@ public class Product {
     @Column(name = "is_active")
     private Boolean isActive = true;
     
+    // Bumped with every stock change (under the row lock); stock events carry it so consumers drop stale ones
+    @ColumnDefault("0")
+    @Column(name = "stock_version", nullable = false)
+    private Long stockVersion = 0L;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -154,6 +168,14 @@ public class Product {
         this.isActive = isActive;
     }
     
+    public Long getStockVersion() {
+        return stockVersion;
+    }
+    
+    public void setStockVersion(Long stockVersion) {
+        this.stockVersion = stockVersion;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
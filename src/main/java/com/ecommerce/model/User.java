@@ -4,15 +4,22 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDateTime;
 
 /**
  * User Entity
  * Represents a user in the e-commerce system
+ * Held in the Hibernate second-level cache; username lookups go through the natural-id cache
  */
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-entity")
+@NaturalIdCache(region = "user-natural-id")
 public class User {
     
     @Id
@@ -21,6 +28,7 @@ public class User {
     
     @NotBlank
     @Size(min = 3, max = 50)
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String username;
     
@@ -0,0 +1,28 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Product Locking Repository
+ * Loads products for writing: row-locked and read from the database, never from the
+ * second-level cache, whose copy may predate another node's committed change
+ */
+public interface ProductLockingRepository {
+    
+    /**
+     * Find product by ID, locking its row until the transaction ends
+     * Call before changing the product in the transaction: the row is re-read, so unflushed
+     * changes to an already loaded instance would be lost
+     */
+    Optional<Product> findByIdForUpdate(Long id);
+    
+    /**
+     * Find several products in one query, locking their rows in ascending id order until the
+     * transaction ends; ids without a product are left out
+     */
+    List<Product> findAllByIdForUpdate(Collection<Long> ids);
+}
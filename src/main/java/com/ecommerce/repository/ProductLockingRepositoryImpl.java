@@ -0,0 +1,68 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnitUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Product Locking Repository Implementation
+ * SELECT ... FOR UPDATE through refresh (one product) or a locking query (several), reloading
+ * the state even when the instance came from the cache or is already in the persistence context
+ */
+public class ProductLockingRepositoryImpl implements ProductLockingRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Optional<Product> findByIdForUpdate(Long id) {
+        Product product = entityManager.find(Product.class, id);
+        if (product == null) {
+            return Optional.empty();
+        }
+        try {
+            entityManager.refresh(product, LockModeType.PESSIMISTIC_WRITE);
+        } catch (EntityNotFoundException e) {
+            // Deleted on another node; the cached copy was stale
+            return Optional.empty();
+        }
+        return Optional.of(product);
+    }
+    
+    @Override
+    public List<Product> findAllByIdForUpdate(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Query results never overwrite instances the persistence context already holds,
+        // so those are refreshed once their rows are locked
+        PersistenceUnitUtil persistenceUnitUtil = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<Product> alreadyLoaded = new ArrayList<>();
+        for (Long id : ids) {
+            Product reference = entityManager.getReference(Product.class, id);
+            if (persistenceUnitUtil.isLoaded(reference)) {
+                alreadyLoaded.add(reference);
+            }
+        }
+        
+        List<Product> products = entityManager
+                .createQuery("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id", Product.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        for (Product product : alreadyLoaded) {
+            if (products.contains(product)) {
+                entityManager.refresh(product);
+            }
+        }
+        return products;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.Product;
+
+import java.util.Optional;
+
+/**
+ * Product Natural-Id Repository
+ * SKU lookups resolved through the Hibernate natural-id cache
+ */
+public interface ProductNaturalIdRepository {
+    
+    /**
+     * Find product by SKU
+     */
+    Optional<Product> findBySku(String sku);
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+/**
+ * Product Natural-Id Repository Implementation
+ * Repeat lookups are served from the natural-id and entity caches without a SELECT
+ */
+public class ProductNaturalIdRepositoryImpl implements ProductNaturalIdRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Optional<Product> findBySku(String sku) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Product.class)
+                .loadOptional(sku);
+    }
+}
@@ -9,15 +9,16 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Product Repository
  * Data access layer for Product entity
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductNaturalIdRepository,
+        ProductLockingRepository {
     
     /**
      * Find all active products
@@ -55,11 +56,6 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice AND p.isActive = true")
     List<Product> findByPriceRange(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice);
     
-    /**
-     * Find product by SKU
-     */
-    Optional<Product> findBySku(String sku);
-    
     /**
      * Check if SKU exists
      */
@@ -70,5 +66,30 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     @Query("SELECT p FROM Product p WHERE p.stock < :threshold AND p.isActive = true")
     List<Product> findLowStockProducts(@Param("threshold") Integer threshold);
+    
+    /**
+     * Read only the current stock of a product with its stock version
+     * At most one row, {stock, stockVersion}
+     */
+    @Query("SELECT p.stock, p.stockVersion FROM Product p WHERE p.id = :id")
+    List<Object[]> findStockAndVersionById(@Param("id") Long id);
+    
+    /**
+     * Scan product ids in ascending order (keyset pagination)
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Scan product ids with their stock in ascending id order (keyset pagination)
+     * Each row is {id, stock, stockVersion}
+     */
+    @Query("SELECT p.id, p.stock, p.stockVersion FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findStockAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Those of the given ids that belong to active products
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.isActive = true")
+    List<Long> findActiveIdsIn(@Param("ids") Collection<Long> ids);
 }
-
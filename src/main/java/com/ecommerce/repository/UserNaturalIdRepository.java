@@ -0,0 +1,17 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.User;
+
+import java.util.Optional;
+
+/**
+ * User Natural-Id Repository
+ * Username lookups resolved through the Hibernate natural-id cache
+ */
+public interface UserNaturalIdRepository {
+    
+    /**
+     * Find user by username
+     */
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+/**
+ * User Natural-Id Repository Implementation
+ * Repeat lookups are served from the natural-id and entity caches without a SELECT
+ */
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
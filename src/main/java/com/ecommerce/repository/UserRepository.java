@@ -1,9 +1,16 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.UserResponse;
 import com.ecommerce.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -11,18 +18,22 @@ import java.util.Optional;
  * Data access layer for User entity
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
     
-    /**
-     * Find user by username
-     */
-    Optional<User> findByUsername(String username);
+    String USER_RESPONSE_PROJECTION = "SELECT new com.ecommerce.dto.UserResponse(u.id, u.username, u.email, "
+            + "u.firstName, u.lastName, u.phoneNumber, u.role, u.isActive, u.createdAt, u.updatedAt) FROM User u";
     
     /**
      * Find user by email
      */
     Optional<User> findByEmail(String email);
     
+    /**
+     * Find users whose username or email matches, in one query
+     * Returns two users only when one's username equals another's email
+     */
+    List<User> findByUsernameOrEmail(String username, String email);
+    
     /**
      * Check if username exists
      */
@@ -32,5 +43,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * Check if email exists
      */
     boolean existsByEmail(String email);
+    
+    /**
+     * Scan id, username and email in ascending id order (keyset pagination)
+     */
+    @Query("SELECT u.id, u.username, u.email FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Object[]> findIdentitiesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Public profile of one user (never loads the password hash)
+     */
+    @Query(USER_RESPONSE_PROJECTION + " WHERE u.id = :id")
+    Optional<UserResponse> findResponseById(@Param("id") Long id);
+    
+    /**
+     * Public profiles of several users in one query
+     */
+    @Query(USER_RESPONSE_PROJECTION + " WHERE u.id IN :ids")
+    List<UserResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Page of public profiles
+     */
+    @Query(value = USER_RESPONSE_PROJECTION, countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserResponse> findAllResponses(Pageable pageable);
 }
-
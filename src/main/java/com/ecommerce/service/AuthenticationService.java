@@ -1,79 +1,107 @@
 package com.ecommerce.service;
 
 import com.ecommerce.dto.AuthResponse;
+import com.ecommerce.dto.AvailabilityResponse;
 import com.ecommerce.dto.LoginRequest;
 import com.ecommerce.dto.RegisterRequest;
 import com.ecommerce.model.User;
 import com.ecommerce.model.UserRole;
 import com.ecommerce.repository.UserRepository;
+import com.ecommerce.util.JwtPrincipal;
 import com.ecommerce.util.JwtUtil;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Authentication Service
  * Handles user authentication and registration
+ * BCrypt runs on the PasswordHashingService pool; results complete asynchronously
  */
 @Service
+@Timed(value = "service.method", description = "Service method latency", histogram = true)
 public class AuthenticationService {
     
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private UserAvailabilityFilter userAvailabilityFilter;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private UserService userService;
+    
+    // Database and Redis work after hashing; never on the small CPU-sized hashing pool
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor applicationTaskExecutor;
+    
     /**
      * Register a new user
+     * Uniqueness is enforced by the username/email unique constraints, not by pre-queries
+     * The user is saved on the application task executor once the password is hashed
      */
-    public AuthResponse register(RegisterRequest request) {
-        // Check if username already exists
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Username already exists");
-        }
-        
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new RuntimeException("Email already exists");
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
+        return passwordHashingService.encode(request.getPassword()).thenApplyAsync(encodedPassword -> {
+            // Create new user
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setEmail(request.getEmail());
+            user.setPassword(encodedPassword);
+            user.setFirstName(request.getFirstName());
+            user.setLastName(request.getLastName());
+            user.setPhoneNumber(request.getPhoneNumber());
+            user.setRole(UserRole.USER);
+            user.setIsActive(true);
+            
+            try {
+                user = userRepository.saveAndFlush(user);
+            } catch (DataIntegrityViolationException e) {
+                throw duplicateUser(request);
+            }
+            userAvailabilityFilter.recordRegistered(user.getUsername(), user.getEmail());
+            userService.evictUserPages();
+            
+            return toAuthResponse(user);
+        }, applicationTaskExecutor);
+    }
+    
+    /**
+     * Check whether a username and/or email can still be registered
+     */
+    public AvailabilityResponse checkAvailability(String username, String email) {
+        if (username == null && email == null) {
+            throw new RuntimeException("Username or email is required");
         }
-        
-        // Create new user
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setFirstName(request.getFirstName());
-        user.setLastName(request.getLastName());
-        user.setPhoneNumber(request.getPhoneNumber());
-        user.setRole(UserRole.USER);
-        user.setIsActive(true);
-        
-        user = userRepository.save(user);
-        
-        // Generate JWT token
-        String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
-        
-        return new AuthResponse(
-            token,
-            user.getId(),
-            user.getUsername(),
-            user.getEmail(),
-            user.getRole().name()
+        return new AvailabilityResponse(
+            username,
+            username != null ? userAvailabilityFilter.isUsernameAvailable(username) : null,
+            email,
+            email != null ? userAvailabilityFilter.isEmailAvailable(email) : null
         );
     }
     
     /**
      * Authenticate user and return JWT token
      */
-    public AuthResponse login(LoginRequest request) {
-        // Find user by username or email
-        User user = userRepository.findByUsername(request.getUsernameOrEmail())
-            .orElse(userRepository.findByEmail(request.getUsernameOrEmail())
-                .orElseThrow(() -> new RuntimeException("Invalid username/email or password")));
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
+        // Find user by username or email (one query)
+        User user = findByUsernameOrEmail(request.getUsernameOrEmail());
         
         // Check if user is active
         if (!user.getIsActive()) {
@@ -81,10 +109,66 @@ public class AuthenticationService {
         }
         
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        return passwordHashingService.matches(request.getPassword(), user.getPassword()).thenApply(matches -> {
+            if (!matches) {
+                throw new RuntimeException("Invalid username/email or password");
+            }
+            return toAuthResponse(user);
+        });
+    }
+    
+    /**
+     * Revoke the given token (logout)
+     */
+    public void logout(String token) {
+        tokenRevocationService.revokeToken(verifyForRevocation(token));
+    }
+    
+    /**
+     * Revoke every token issued so far to the token's user (logout on all devices)
+     */
+    public void logoutEverywhere(String token) {
+        tokenRevocationService.revokeUser(verifyForRevocation(token).getSubject());
+    }
+    
+    private JwtPrincipal verifyForRevocation(String token) {
+        if (token == null) {
+            throw new RuntimeException("Token is required");
+        }
+        JwtPrincipal principal = jwtUtil.verify(token);
+        if (tokenRevocationService.isRevoked(principal)) {
+            throw new RuntimeException("Token already revoked");
+        }
+        return principal;
+    }
+    
+    /**
+     * Tell which unique constraint a failed registration hit (one query, only on conflict)
+     */
+    private RuntimeException duplicateUser(RegisterRequest request) {
+        if (userRepository.existsByUsername(request.getUsername())) {
+            userAvailabilityFilter.recordRegistered(request.getUsername(), null);
+            return new RuntimeException("Username already exists");
+        }
+        userAvailabilityFilter.recordRegistered(null, request.getEmail());
+        return new RuntimeException("Email already exists");
+    }
+    
+    private User findByUsernameOrEmail(String usernameOrEmail) {
+        List<User> users = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail);
+        if (users.isEmpty()) {
             throw new RuntimeException("Invalid username/email or password");
         }
-        
+        // A username match takes precedence, as it did with separate lookups
+        for (User user : users) {
+            if (user.getUsername().equals(usernameOrEmail)) {
+                return user;
+            }
+        }
+        return users.get(0);
+    }
+    
+    private AuthResponse toAuthResponse(User user) {
         // Generate JWT token
         String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
         
@@ -97,4 +181,3 @@ public class AuthenticationService {
         );
     }
 }
-
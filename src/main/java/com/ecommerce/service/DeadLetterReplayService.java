@@ -0,0 +1,146 @@
+package com.ecommerce.service;
+
+import com.ecommerce.util.RetryTopics;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dead Letter Replay Service
+ * Re-drives records parked in {topic}-dlt back onto their source topic, byte for byte,
+ * and commits the replayed offsets so the same records are not replayed twice
+ */
+@Service
+public class DeadLetterReplayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterReplayService.class);
+
+    private static final String REPLAY_GROUP_ID = "dead-letter-replay";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final long SEND_TIMEOUT_SECONDS = 30;
+
+    private static final Set<String> SOURCE_TOPICS = Set.of(KafkaProducerService.TOPIC_ORDERS,
+            KafkaProducerService.TOPIC_ORDER_STATUS, KafkaProducerService.TOPIC_NOTIFICATIONS);
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private ConsumerFactory<String, byte[]> consumerFactory;
+
+    @PostConstruct
+    public void init() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, REPLAY_GROUP_ID);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumerFactory = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ByteArrayDeserializer());
+    }
+
+    /**
+     * Replay up to maxRecords dead letters of a source topic
+     * Returns the number of records republished
+     */
+    public int replay(String sourceTopic, int maxRecords) {
+        if (!SOURCE_TOPICS.contains(sourceTopic)) {
+            throw new RuntimeException("Unknown topic: " + sourceTopic);
+        }
+        if (maxRecords <= 0) {
+            throw new RuntimeException("maxRecords must be positive");
+        }
+        String deadLetterTopic = RetryTopics.deadLetterTopic(sourceTopic);
+
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(deadLetterTopic);
+            if (partitionInfos == null || partitionInfos.isEmpty()) {
+                return 0;
+            }
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : partitionInfos) {
+                partitions.add(new TopicPartition(info.topic(), info.partition()));
+            }
+            // Assigned rather than subscribed: no rebalance, committed offsets of the group still apply
+            consumer.assign(partitions);
+
+            List<CompletableFuture<?>> sends = new ArrayList<>();
+            Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+            while (sends.size() < maxRecords) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (sends.size() >= maxRecords) {
+                        break;
+                    }
+                    sends.add(kafkaTemplate.send(new ProducerRecord<>(sourceTopic, null, record.key(),
+                            record.value(), replayHeaders(record.headers()))));
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]))
+                    .get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (!offsets.isEmpty()) {
+                consumer.commitSync(offsets);
+            }
+            logger.info("Replayed dead letters: topic={}, count={}", sourceTopic, sends.size());
+            return sends.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Dead letter replay interrupted: " + sourceTopic, e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException("Dead letter replay failed: " + sourceTopic, e);
+        }
+    }
+
+    /**
+     * Original headers (e.g. JSON type ids) without the dead-letter and retry bookkeeping
+     */
+    private static Headers replayHeaders(Headers headers) {
+        Headers replayed = new RecordHeaders();
+        for (Header header : headers) {
+            String key = header.key();
+            if (!key.startsWith(KafkaHeaders.PREFIX) && !key.equals(RetryTopics.DUE_AT_HEADER)) {
+                replayed.add(header);
+            }
+        }
+        return replayed;
+    }
+}
@@ -0,0 +1,205 @@
+package com.ecommerce.service;
+
+import com.ecommerce.event.IdentifiedEvent;
+import com.ecommerce.util.LocalCacheMetrics;
+import com.ecommerce.util.RedisUtil;
+import com.ecommerce.util.RetryTopics;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event Deduplicator
+ * Drops redelivered events (producer retries, rebalances, replays of processed records)
+ * by event id: a bounded in-process cache answers most checks, and hourly Redis sets
+ * shared by all instances answer the rest in one pipelined round-trip per batch
+ */
+@Service
+public class EventDeduplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventDeduplicator.class);
+
+    private static final String KEY_PREFIX = "events:processed:";
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+
+    @Value("${events.dedup.window-hours:2}")
+    private int windowHours;
+
+    @Value("${events.dedup.local-max-size:200000}")
+    private long localMaxSize;
+
+    @Autowired
+    private RedisUtil redisUtil;
+
+    @Autowired
+    private EventPipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Key: topic + ':' + eventId
+    private Cache<String, Boolean> recentlyProcessed;
+
+    @PostConstruct
+    public void init() {
+        if (windowHours <= 0) {
+            throw new IllegalStateException("events.dedup.window-hours must be positive");
+        }
+        recentlyProcessed = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofHours(windowHours))
+                .recordStats()
+                .build();
+        LocalCacheMetrics.monitor(meterRegistry, recentlyProcessed, "events.dedup");
+    }
+
+    /**
+     * Find the records of a batch that were already processed or repeat an earlier record
+     * of the same batch; unidentified records are never treated as duplicates
+     * Retried records are checked against their source topic
+     */
+    public Batch begin(List<? extends ConsumerRecord<?, ?>> records) {
+        Batch batch = new Batch();
+        Map<String, List<ConsumerRecord<?, ?>>> unresolved = new HashMap<>();
+        Set<String> seenInBatch = new HashSet<>();
+        for (ConsumerRecord<?, ?> record : records) {
+            String id = idOf(record);
+            if (id == null) {
+                continue;
+            }
+            if (!seenInBatch.add(id) || recentlyProcessed.getIfPresent(id) != null) {
+                batch.duplicates.add(record);
+            } else {
+                unresolved.computeIfAbsent(id, k -> new ArrayList<>(1)).add(record);
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            for (String id : processedInRedis(unresolved.keySet())) {
+                batch.duplicates.addAll(unresolved.get(id));
+                // Remember the answer so the next redelivery is rejected without I/O
+                recentlyProcessed.put(id, Boolean.TRUE);
+            }
+        }
+        for (ConsumerRecord<?, ?> record : batch.duplicates) {
+            pipelineMetrics.recordDuplicate(RetryTopics.sourceTopicOf(record.topic()));
+        }
+        if (!batch.duplicates.isEmpty()) {
+            logger.debug("Dropping {} redelivered records", batch.duplicates.size());
+        }
+        return batch;
+    }
+
+    /**
+     * Remember the records processed in a batch, in one pipelined round-trip
+     * Called even when the batch failed part-way, so records that did succeed are not
+     * processed again when the rest of the batch is redelivered
+     */
+    public void complete(Batch batch) {
+        if (batch.processed.isEmpty()) {
+            return;
+        }
+        List<String> ids = new ArrayList<>(batch.processed);
+        for (String id : ids) {
+            recentlyProcessed.put(id, Boolean.TRUE);
+        }
+        String key = hourKey(currentHour());
+        try {
+            redisUtil.pipelined(operations -> {
+                operations.opsForSet().add(key, ids.toArray());
+                // The current partial hour plus windowHours full hours are checked
+                operations.expire(key, windowHours + 2L, TimeUnit.HOURS);
+            });
+        } catch (Exception e) {
+            // Local cache still covers this instance; other instances may process a redelivery again
+            logger.warn("Failed to record processed event ids: count={}", batch.processed.size(), e);
+        }
+    }
+
+    /**
+     * Ids already recorded in one of the hourly sets covering at least the last windowHours
+     * Fails open: without Redis every unresolved record is processed (at-least-once)
+     */
+    private List<String> processedInRedis(Set<String> ids) {
+        List<String> orderedIds = new ArrayList<>(ids);
+        long hour = currentHour();
+        try {
+            List<Object> results = redisUtil.pipelined(operations -> {
+                for (int h = 0; h <= windowHours; h++) {
+                    String key = hourKey(hour - h);
+                    for (String id : orderedIds) {
+                        operations.opsForSet().isMember(key, id);
+                    }
+                }
+            });
+            List<String> processed = new ArrayList<>();
+            for (int i = 0; i < orderedIds.size(); i++) {
+                for (int h = 0; h <= windowHours; h++) {
+                    if (Boolean.TRUE.equals(results.get(h * orderedIds.size() + i))) {
+                        processed.add(orderedIds.get(i));
+                        break;
+                    }
+                }
+            }
+            return processed;
+        } catch (Exception e) {
+            logger.warn("Event dedup lookup failed, processing batch without it: ids={}", ids.size(), e);
+            return Collections.emptyList();
+        }
+    }
+
+    private static String idOf(ConsumerRecord<?, ?> record) {
+        if (record.value() instanceof IdentifiedEvent event && event.getEventId() != null) {
+            return RetryTopics.sourceTopicOf(record.topic()) + ':' + event.getEventId();
+        }
+        return null;
+    }
+
+    private static String hourKey(long hour) {
+        return KEY_PREFIX + hour;
+    }
+
+    private static long currentHour() {
+        return System.currentTimeMillis() / MILLIS_PER_HOUR;
+    }
+
+    /**
+     * Dedup state of one consumed batch
+     * Safe to use from the dispatcher's worker threads
+     */
+    public static final class Batch {
+
+        private final Set<ConsumerRecord<?, ?>> duplicates = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Queue<String> processed = new ConcurrentLinkedQueue<>();
+
+        public boolean isDuplicate(ConsumerRecord<?, ?> record) {
+            return duplicates.contains(record);
+        }
+
+        public void processed(ConsumerRecord<?, ?> record) {
+            String id = idOf(record);
+            if (id != null) {
+                processed.add(id);
+            }
+        }
+    }
+}
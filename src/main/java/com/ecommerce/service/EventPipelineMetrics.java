@@ -0,0 +1,151 @@
+package com.ecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event Pipeline Metrics
+ * Per-topic counters and latency histograms for producing and consuming Kafka events,
+ * plus a sampled structured log line, replacing the per-message INFO logs
+ */
+@Component
+public class EventPipelineMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventPipelineMetrics.class);
+
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_FAILURE = "failure";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${events.telemetry.log-sample-rate:0.001}")
+    private double logSampleRate;
+
+    // Meters are cached per tag combination so the hot path skips the registry lookup
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> batchSizes = new ConcurrentHashMap<>();
+
+    /**
+     * Record the time from handing an event to the producer until the broker acknowledged it
+     * (or the send failed)
+     */
+    public void recordSend(String topic, String key, long elapsedNanos, Throwable failure) {
+        String outcome = failure == null ? OUTCOME_SUCCESS : OUTCOME_FAILURE;
+        timer("events.send", "Time from send to broker acknowledgement", topic, outcome)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (failure != null) {
+            failureCounter(topic, "send").increment();
+        } else if (sampled()) {
+            logger.info("event=sent topic={} key={} ackMs={}",
+                       topic, key, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+
+    /**
+     * Record the size of a polled batch and how long each record waited since it was produced
+     */
+    public void recordBatch(List<? extends ConsumerRecord<?, ?>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String batchTopic = records.get(0).topic();
+        batchSizes.computeIfAbsent(batchTopic, topic -> DistributionSummary.builder("events.batch.size")
+                        .description("Records per consumed batch")
+                        .tag("topic", topic)
+                        .register(meterRegistry))
+                .record(records.size());
+        for (ConsumerRecord<?, ?> record : records) {
+            if (record.timestamp() > 0) {
+                timer("events.consume.lag", "Time from record creation to consumption", record.topic(), null)
+                        .record(Math.max(0, now - record.timestamp()), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Run the processing of one record, timing it and counting failures per topic
+     */
+    public void recordProcessing(ConsumerRecord<?, ?> record, ProcessingAction action) throws Exception {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } catch (Exception e) {
+            timer("events.process", "Time spent processing one record", record.topic(), OUTCOME_FAILURE)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            failureCounter(record.topic(), "process").increment();
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        timer("events.process", "Time spent processing one record", record.topic(), OUTCOME_SUCCESS)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        if (sampled()) {
+            logger.info("event=processed topic={} partition={} offset={} key={} processingMs={}",
+                       record.topic(), record.partition(), record.offset(), record.key(),
+                       TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    /**
+     * Count a redelivered record that was dropped before processing
+     */
+    public void recordDuplicate(String topic) {
+        counters.computeIfAbsent(topic + "|duplicate", id -> Counter.builder("events.duplicates")
+                        .description("Redelivered records dropped by event id")
+                        .tag("topic", topic)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private boolean sampled() {
+        return logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate;
+    }
+
+    private Timer timer(String name, String description, String topic, String outcome) {
+        return timers.computeIfAbsent(name + '|' + topic + '|' + outcome, id -> {
+            Timer.Builder builder = Timer.builder(name)
+                    .description(description)
+                    .tag("topic", topic)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(5));
+            if (outcome != null) {
+                builder.tag("outcome", outcome);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    private Counter failureCounter(String topic, String stage) {
+        return counters.computeIfAbsent(topic + '|' + stage, id -> Counter.builder("events.failures")
+                .description("Failed sends and processing attempts")
+                .tag("topic", topic)
+                .tag("stage", stage)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Processing of one record
+     */
+    @FunctionalInterface
+    public interface ProcessingAction {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,298 @@
+package com.ecommerce.service;
+
+import com.ecommerce.event.AvroEventSerializer;
+import com.ecommerce.event.EventSchemaRegistry;
+import com.ecommerce.event.IdentifiedEvent;
+import com.ecommerce.util.SpillJournal;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Event Publisher
+ * Non-blocking facade in front of the Kafka producer: callers only enqueue, a single
+ * sender thread talks to the broker. Repeated send failures open a circuit breaker;
+ * while it is open (or the queue overflows) events are spilled to a memory-mapped journal
+ * on local disk, which is drained in order once the broker is reachable again
+ */
+@Service
+public class EventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventPublisher.class);
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    @Value("${events.publisher.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${events.publisher.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${events.publisher.open-duration-ms:10000}")
+    private long openDurationMs;
+
+    @Value("${events.publisher.drain-batch-size:500}")
+    private int drainBatchSize;
+
+    @Value("${events.publisher.drain-timeout-ms:10000}")
+    private long drainTimeoutMs;
+
+    @Value("${events.publisher.journal.dir:data/event-journal}")
+    private String journalDir;
+
+    @Value("${events.publisher.journal.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${events.publisher.journal.max-segments:16}")
+    private int maxSegments;
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private EventSchemaRegistry eventSchemaRegistry;
+
+    @Autowired
+    private EventPipelineMetrics pipelineMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<PendingEvent> queue;
+    private SpillJournal journal;
+    private AvroEventSerializer serializer;
+    private Thread sender;
+    private volatile boolean running;
+
+    // Circuit breaker state; consecutive failures are counted from producer callbacks
+    private volatile CircuitState state = CircuitState.CLOSED;
+    private volatile long openedAt;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    @PostConstruct
+    public void init() throws IOException {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        journal = new SpillJournal(Path.of(journalDir), segmentBytes, maxSegments);
+        serializer = new AvroEventSerializer(eventSchemaRegistry);
+
+        Gauge.builder("events.publisher.queue.size", queue, BlockingQueue::size)
+                .description("Events waiting for the sender thread")
+                .register(meterRegistry);
+        Gauge.builder("events.publisher.journal.bytes", journal, SpillJournal::pendingBytes)
+                .description("Spilled events waiting in the local journal")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("events.publisher.circuit.open", this, publisher -> publisher.state == CircuitState.CLOSED ? 0 : 1)
+                .description("1 while the producer circuit breaker is open or half-open")
+                .register(meterRegistry);
+
+        running = true;
+        sender = new Thread(this::runSender, "event-publisher");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        running = false;
+        sender.interrupt();
+        sender.join(TimeUnit.SECONDS.toMillis(10));
+        // Whatever was not sent survives the restart in the journal
+        PendingEvent pending;
+        while ((pending = queue.poll()) != null) {
+            spill(pending.topic, pending.key, pending.event);
+        }
+        kafkaTemplate.flush();
+        journal.close();
+    }
+
+    /**
+     * Queue an event for sending; never waits for the broker
+     * Events that do not fit into the queue go to the journal
+     */
+    public void publish(String topic, String key, IdentifiedEvent event) {
+        if (event.getEventId() == null) {
+            // Assigned once, so producer retries, spills and redeliveries keep the same id
+            event.setEventId(UUID.randomUUID().toString());
+        }
+        if (!queue.offer(new PendingEvent(topic, key, event))) {
+            logger.warn("Event queue full, spilling to journal: topic={}, key={}", topic, key);
+            spill(topic, key, event);
+        }
+    }
+
+    public boolean isCircuitOpen() {
+        return state != CircuitState.CLOSED;
+    }
+
+    private void runSender() {
+        while (running) {
+            try {
+                if (!journal.isEmpty() && allowRequest()) {
+                    drainJournal();
+                }
+                PendingEvent pending = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (pending == null) {
+                    continue;
+                }
+                // Spilled events go first: while any are waiting, new ones queue up behind them
+                if (state != CircuitState.CLOSED || !journal.isEmpty()) {
+                    spill(pending.topic, pending.key, pending.event);
+                } else {
+                    send(pending);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Event publisher loop failed", e);
+            }
+        }
+    }
+
+    private void send(PendingEvent pending) {
+        long start = System.nanoTime();
+        try {
+            kafkaTemplate.send(pending.topic, pending.key, pending.event).whenComplete((result, ex) -> {
+                pipelineMetrics.recordSend(pending.topic, pending.key, System.nanoTime() - start, ex);
+                if (ex == null) {
+                    recordSuccess();
+                } else {
+                    logger.error("Failed to send {}, spilling to journal: topic={}, key={}",
+                                pending.event.getClass().getSimpleName(), pending.topic, pending.key, ex);
+                    recordFailure();
+                    spill(pending.topic, pending.key, pending.event);
+                }
+            });
+        } catch (Exception e) {
+            // Metadata or buffer wait exceeded max.block.ms: the broker is unreachable
+            pipelineMetrics.recordSend(pending.topic, pending.key, System.nanoTime() - start, e);
+            logger.error("Error sending {}, spilling to journal: topic={}, key={}",
+                        pending.event.getClass().getSimpleName(), pending.topic, pending.key, e);
+            recordFailure();
+            spill(pending.topic, pending.key, pending.event);
+        }
+    }
+
+    /**
+     * Re-send spilled events in journal order, one batch at a time
+     * A batch is committed only after every record was acknowledged; a failed batch is sent
+     * again later (duplicates are dropped by the consumers' event-id deduplication)
+     */
+    private void drainJournal() throws IOException, InterruptedException {
+        while (running && allowRequest()) {
+            SpillJournal.Batch batch = journal.read(drainBatchSize);
+            if (batch.getRecords().isEmpty()) {
+                return;
+            }
+            List<CompletableFuture<?>> sends = new ArrayList<>(batch.getRecords().size());
+            try {
+                for (byte[] record : batch.getRecords()) {
+                    DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+                    String topic = in.readUTF();
+                    String key = in.readBoolean() ? in.readUTF() : null;
+                    byte[] value = in.readAllBytes();
+                    // Already encoded: the serializer passes byte arrays through unchanged
+                    sends.add(kafkaTemplate.send(topic, key, value));
+                }
+                CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]))
+                        .get(drainTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                logger.warn("Draining event journal failed, will retry: records={}", batch.getRecords().size(), e);
+                recordFailure();
+                return;
+            }
+            journal.commit(batch);
+            recordSuccess();
+            logger.info("Drained {} spilled events from journal, pendingBytes={}",
+                       batch.getRecords().size(), journal.pendingBytes());
+        }
+    }
+
+    private void spill(String topic, String key, IdentifiedEvent event) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(topic);
+            out.writeBoolean(key != null);
+            if (key != null) {
+                out.writeUTF(key);
+            }
+            out.write(serializer.serialize(topic, event));
+            if (!journal.append(bytes.toByteArray())) {
+                logger.error("Event journal full, dropping event: topic={}, key={}, eventId={}",
+                            topic, key, event.getEventId());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to spill event: topic={}, key={}, eventId={}", topic, key, event.getEventId(), e);
+        }
+    }
+
+    /**
+     * Closed: always; open: not until openDurationMs has passed, then one probe (half-open)
+     */
+    private boolean allowRequest() {
+        if (state == CircuitState.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            state = CircuitState.HALF_OPEN;
+            logger.info("Producer circuit half-open, probing broker");
+        }
+        return state != CircuitState.OPEN;
+    }
+
+    private void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (state != CircuitState.CLOSED) {
+            state = CircuitState.CLOSED;
+            logger.info("Producer circuit closed");
+        }
+    }
+
+    private void recordFailure() {
+        if (state == CircuitState.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            if (state != CircuitState.OPEN) {
+                logger.warn("Producer circuit opened after {} consecutive failures", consecutiveFailures.get());
+            }
+            state = CircuitState.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    private static final class PendingEvent {
+
+        private final String topic;
+        private final String key;
+        private final IdentifiedEvent event;
+
+        private PendingEvent(String topic, String key, IdentifiedEvent event) {
+            this.topic = topic;
+            this.key = key;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.StockLevelResponse;
+import com.ecommerce.event.InventoryUpdatedEvent;
+import com.ecommerce.event.OrderInventoryChangedEvent;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.util.AssignedTopicConsumer;
+import com.ecommerce.util.LongIntHashMap;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Inventory State Store
+ * In-process materialized view of current stock per product, fed by the inventory topics.
+ * Serves stock lookups and threshold alerts without touching MySQL (low-stock queries only
+ * check which candidates are still active), and is snapshotted (with consumed offsets) to
+ * memory-mapped files for fast restarts. The view is restored or seeded before its consumer
+ * starts, and every node reads all partitions without joining a consumer group.
+ * Nothing orders a product's updates across the two topics and their partitions, so each
+ * update carries the product's stock version and only newer versions are applied
+ */
+@Service
+public class InventoryStateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryStateStore.class);
+
+    private static final int MISSING = Integer.MIN_VALUE;
+    private static final int SEED_PAGE_SIZE = 10_000;
+    // Low-stock candidates checked for being active per query
+    private static final int ACTIVE_CHECK_BATCH_SIZE = 1_000;
+    // Events this much older than the database seed are replayed, covering transactions still in flight
+    private static final long SEED_REPLAY_MARGIN_MS = 60_000;
+
+    private static final int SNAPSHOT_MAGIC = 0x494E5653; // "INVS"
+    private static final int SNAPSHOT_FORMAT = 2;
+    private static final int SNAPSHOT_HEADER_BYTES = 32;
+    private static final int SNAPSHOT_ENTRY_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    @Value("${inventory.low-stock-threshold:10}")
+    private int lowStockThreshold;
+
+    @Value("${inventory.state-store.snapshot-dir:data/inventory-state}")
+    private String snapshotDir;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ConsumerFactory<String, Object> consumerFactory;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntHashMap stockByProductId = new LongIntHashMap(1024);
+    // Low 32 bits of the last applied stock version, compared wrap-around safe; kept for deleted
+    // products too, so a late older update cannot bring them back
+    private final LongIntHashMap versionByProductId = new LongIntHashMap(1024);
+    private final Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+
+    private volatile boolean ready;
+    private volatile boolean dirty;
+    private long snapshotSequence;
+    // Start of the database seed until the partitions are positioned; 0 after a snapshot restore
+    private volatile long seedStartedAt;
+    private AssignedTopicConsumer consumer;
+
+    @PostConstruct
+    public void init() {
+        Snapshot snapshot = latestSnapshot();
+        if (snapshot != null) {
+            snapshot.apply(this);
+            ready = true;
+            logger.info("Inventory state restored from snapshot: products={}, sequence={}",
+                       stockByProductId.size(), snapshotSequence);
+        } else {
+            seedStartedAt = System.currentTimeMillis();
+            seedFromDatabase();
+        }
+        consumer = new AssignedTopicConsumer("inventory-state", consumerFactory,
+                List.of(KafkaProducerService.TOPIC_INVENTORY, KafkaProducerService.TOPIC_INVENTORY_CHANGES),
+                this::position, this::consumeInventoryEvents);
+        consumer.start();
+    }
+
+    /**
+     * Position newly assigned partitions: at the snapshot offsets after a restore; after a database
+     * seed, shortly before it started so updates in flight are replayed on top (those not newer
+     * than the seeded version are dropped); partitions added later from their beginning
+     */
+    private void position(Consumer<String, Object> kafkaConsumer, List<TopicPartition> partitions) {
+        List<TopicPartition> unknown = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (TopicPartition partition : partitions) {
+                Long offset = nextOffsets.get(partition);
+                if (offset != null) {
+                    kafkaConsumer.seek(partition, offset);
+                } else {
+                    unknown.add(partition);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+        if (seedStartedAt > 0) {
+            AssignedTopicConsumer.seekToTimestamp(kafkaConsumer, unknown, seedStartedAt - SEED_REPLAY_MARGIN_MS);
+            seedStartedAt = 0;
+        } else {
+            // Everything on a partition created after the restore or seed is newer than our state
+            kafkaConsumer.seekToBeginning(unknown);
+        }
+    }
+
+    /**
+     * Apply inventory events to the view
+     * Every node reads all partitions (see AssignedTopicConsumer)
+     */
+    private void consumeInventoryEvents(List<ConsumerRecord<String, Object>> records) {
+        lock.writeLock().lock();
+        try {
+            for (ConsumerRecord<String, Object> record : records) {
+                Object value = record.value();
+                if (value instanceof InventoryUpdatedEvent) {
+                    InventoryUpdatedEvent event = (InventoryUpdatedEvent) value;
+                    apply(event.getProductId(), event.getNewStock(), event.getStockVersion());
+                } else if (value instanceof OrderInventoryChangedEvent) {
+                    for (OrderInventoryChangedEvent.StockChange change
+                            : ((OrderInventoryChangedEvent) value).getChanges()) {
+                        apply(change.getProductId(), change.getNewStock(), change.getStockVersion());
+                    }
+                } else {
+                    logger.warn("Skipping unexpected inventory record: topic={}, partition={}, offset={}",
+                               record.topic(), record.partition(), record.offset());
+                }
+                nextOffsets.put(new TopicPartition(record.topic(), record.partition()), record.offset() + 1);
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * True once the view has been restored or seeded
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Current stock of a product, or null when the view does not know it
+     */
+    public Integer getStock(Long productId) {
+        lock.readLock().lock();
+        try {
+            int stock = stockByProductId.get(productId, MISSING);
+            return stock == MISSING ? null : stock;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active products with stock below the threshold, lowest stock first
+     * The view does not know which products are deactivated, so candidates are checked against
+     * the database by id, lowest stock first, until the limit is reached
+     */
+    public List<StockLevelResponse> findLowStock(int threshold, int limit) {
+        List<StockLevelResponse> lowStock = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            stockByProductId.forEach((productId, stock) -> {
+                if (stock < threshold) {
+                    lowStock.add(new StockLevelResponse(productId, stock));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        lowStock.sort(Comparator.comparing(StockLevelResponse::getStock)
+                .thenComparing(StockLevelResponse::getProductId));
+
+        List<StockLevelResponse> active = new ArrayList<>(Math.min(limit, lowStock.size()));
+        for (int from = 0; from < lowStock.size() && active.size() < limit; from += ACTIVE_CHECK_BATCH_SIZE) {
+            List<StockLevelResponse> batch = lowStock.subList(from,
+                    Math.min(from + ACTIVE_CHECK_BATCH_SIZE, lowStock.size()));
+            List<Long> ids = new ArrayList<>(batch.size());
+            for (StockLevelResponse candidate : batch) {
+                ids.add(candidate.getProductId());
+            }
+            Set<Long> activeIds = new HashSet<>(productRepository.findActiveIdsIn(ids));
+            for (StockLevelResponse candidate : batch) {
+                if (active.size() < limit && activeIds.contains(candidate.getProductId())) {
+                    active.add(candidate);
+                }
+            }
+        }
+        return active;
+    }
+
+    public int getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    /**
+     * Write a snapshot when the view changed since the last one
+     */
+    @Scheduled(initialDelayString = "${inventory.state-store.snapshot-interval-ms:30000}",
+               fixedDelayString = "${inventory.state-store.snapshot-interval-ms:30000}")
+    public synchronized void snapshot() {
+        if (!ready || !dirty) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            dirty = false;
+            writeSnapshot(++snapshotSequence);
+        } catch (IOException e) {
+            dirty = true;
+            logger.warn("Failed to write inventory snapshot", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (consumer != null) {
+            consumer.close();
+        }
+        snapshot();
+    }
+
+    /**
+     * Record a new stock value; alerts once when a product drops below the threshold
+     * A null stock removes the product (e.g. deleted); updates not newer than the applied version
+     * are dropped, unversioned ones (older producers) are applied as they come
+     */
+    private void apply(Long productId, Integer newStock, Long stockVersion) {
+        if (productId == null) {
+            return;
+        }
+        if (stockVersion != null) {
+            int version = stockVersion.intValue();
+            if (versionByProductId.containsKey(productId)
+                    && version - versionByProductId.get(productId, 0) <= 0) {
+                return;
+            }
+            versionByProductId.put(productId, version);
+        }
+        if (newStock == null) {
+            stockByProductId.remove(productId);
+            return;
+        }
+        int previous = stockByProductId.get(productId, MISSING);
+        stockByProductId.put(productId, newStock);
+        if (newStock < lowStockThreshold && (previous == MISSING || previous >= lowStockThreshold)) {
+            logger.warn("Low stock alert: productId={}, stock={}", productId, newStock);
+        }
+    }
+
+    private void seedFromDatabase() {
+        lock.writeLock().lock();
+        try {
+            long lastId = 0;
+            List<Object[]> page;
+            do {
+                page = productRepository.findStockAfter(lastId, PageRequest.of(0, SEED_PAGE_SIZE));
+                for (Object[] row : page) {
+                    lastId = (Long) row[0];
+                    if (row[1] != null) {
+                        stockByProductId.put(lastId, (Integer) row[1]);
+                        versionByProductId.put(lastId, ((Long) row[2]).intValue());
+                    }
+                }
+            } while (page.size() == SEED_PAGE_SIZE);
+            ready = true;
+            dirty = true;
+            logger.info("Inventory state seeded from database: products={}", stockByProductId.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Two snapshot files are written alternately so a crash mid-write always leaves a valid one
+    private Path snapshotFile(long sequence) {
+        return Paths.get(snapshotDir, "inventory-state-" + (sequence % 2) + ".snap");
+    }
+
+    private void writeSnapshot(long sequence) throws IOException {
+        List<byte[]> topics = new ArrayList<>();
+        int offsetBytes = 0;
+        for (TopicPartition partition : nextOffsets.keySet()) {
+            byte[] topic = partition.topic().getBytes(StandardCharsets.UTF_8);
+            topics.add(topic);
+            offsetBytes += Short.BYTES + topic.length + Integer.BYTES + Long.BYTES;
+        }
+        // Every product with a stock or a version; a missing stock marks a deleted product
+        LongIntHashMap productIds = new LongIntHashMap(versionByProductId.size());
+        versionByProductId.forEach(productIds::put);
+        stockByProductId.forEach(productIds::put);
+        int entries = productIds.size();
+        long size = SNAPSHOT_HEADER_BYTES + offsetBytes + (long) entries * SNAPSHOT_ENTRY_BYTES + Long.BYTES;
+
+        Path file = snapshotFile(sequence);
+        Files.createDirectories(file.getParent());
+        // Never truncated: a file that is still mapped cannot be shrunk on every platform
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(SNAPSHOT_MAGIC);
+            buffer.putInt(SNAPSHOT_FORMAT);
+            buffer.putLong(sequence);
+            buffer.putLong(System.currentTimeMillis());
+            buffer.putInt(nextOffsets.size());
+            buffer.putInt(entries);
+            int i = 0;
+            for (Map.Entry<TopicPartition, Long> offset : nextOffsets.entrySet()) {
+                byte[] topic = topics.get(i++);
+                buffer.putShort((short) topic.length);
+                buffer.put(topic);
+                buffer.putInt(offset.getKey().partition());
+                buffer.putLong(offset.getValue());
+            }
+            productIds.forEach((productId, ignored) -> {
+                buffer.putLong(productId);
+                buffer.putInt(stockByProductId.get(productId, MISSING));
+                buffer.putInt(versionByProductId.get(productId, MISSING));
+            });
+            buffer.putLong(checksum(buffer, buffer.position()));
+            buffer.force();
+        }
+    }
+
+    private Snapshot latestSnapshot() {
+        Snapshot latest = null;
+        for (long slot = 0; slot < 2; slot++) {
+            Snapshot snapshot = readSnapshot(snapshotFile(slot));
+            if (snapshot != null && (latest == null || snapshot.sequence > latest.sequence)) {
+                latest = snapshot;
+            }
+        }
+        return latest;
+    }
+
+    private Snapshot readSnapshot(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < SNAPSHOT_HEADER_BYTES + Long.BYTES
+                    || buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_FORMAT) {
+                logger.warn("Ignoring unrecognized inventory snapshot: {}", file);
+                return null;
+            }
+            Snapshot snapshot = new Snapshot(buffer.getLong());
+            buffer.getLong(); // created at
+            int offsetCount = buffer.getInt();
+            int entries = buffer.getInt();
+            for (int i = 0; i < offsetCount; i++) {
+                byte[] topic = new byte[buffer.getShort()];
+                buffer.get(topic);
+                snapshot.offsets.put(new TopicPartition(new String(topic, StandardCharsets.UTF_8), buffer.getInt()),
+                        buffer.getLong());
+            }
+            snapshot.stock = new LongIntHashMap(entries);
+            snapshot.versions = new LongIntHashMap(entries);
+            for (int i = 0; i < entries; i++) {
+                long productId = buffer.getLong();
+                int stock = buffer.getInt();
+                int version = buffer.getInt();
+                if (stock != MISSING) {
+                    snapshot.stock.put(productId, stock);
+                }
+                if (version != MISSING) {
+                    snapshot.versions.put(productId, version);
+                }
+            }
+            long expected = checksum(buffer, buffer.position());
+            if (buffer.getLong() != expected) {
+                logger.warn("Ignoring corrupt inventory snapshot: {}", file);
+                return null;
+            }
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read inventory snapshot: {}", file, e);
+            return null;
+        }
+    }
+
+    private static long checksum(MappedByteBuffer buffer, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().position(0).limit(length));
+        return crc.getValue();
+    }
+
+    private static final class Snapshot {
+        private final long sequence;
+        private final Map<TopicPartition, Long> offsets = new HashMap<>();
+        private LongIntHashMap stock;
+        private LongIntHashMap versions;
+
+        private Snapshot(long sequence) {
+            this.sequence = sequence;
+        }
+
+        private void apply(InventoryStateStore store) {
+            store.snapshotSequence = sequence;
+            store.nextOffsets.putAll(offsets);
+            stock.forEach(store.stockByProductId::put);
+            versions.forEach(store.versionByProductId::put);
+        }
+    }
+}
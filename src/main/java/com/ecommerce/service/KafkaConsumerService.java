@@ -1,161 +1,237 @@
 package com.ecommerce.service;
 
-import com.ecommerce.event.InventoryUpdatedEvent;
+import com.ecommerce.event.NotificationEvent;
 import com.ecommerce.event.OrderCreatedEvent;
 import com.ecommerce.event.OrderStatusChangedEvent;
+import com.ecommerce.util.RetryTopics;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Kafka Consumer Service
  * Handles consuming events from Kafka topics
+ * Listeners receive all records of a poll; offsets are committed once per batch
+ * Records with different keys are processed in parallel, records with the same key in order
  */
 @Service
 public class KafkaConsumerService {
     
     private static final Logger logger = LoggerFactory.getLogger(KafkaConsumerService.class);
     
+    @Autowired
+    private KeyOrderedDispatcher dispatcher;
+    
+    @Autowired
+    private NotificationCoalescer notificationCoalescer;
+    
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+    
+    @Autowired
+    private EventPipelineMetrics pipelineMetrics;
+    
+    @Autowired
+    private EventDeduplicator deduplicator;
+    
     /**
      * Consume order created events
      */
     @KafkaListener(topics = KafkaProducerService.TOPIC_ORDERS, groupId = "order-processor")
-    public void consumeOrderCreatedEvent(
-            @Payload OrderCreatedEvent event,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
+    public void consumeOrderCreatedEvents(List<ConsumerRecord<String, OrderCreatedEvent>> records) {
+        logger.debug("Received {} OrderCreatedEvents", records.size());
         
-        try {
-            logger.info("Received OrderCreatedEvent: orderId={}, orderNumber={}, topic={}, partition={}, offset={}",
-                       event.getOrderId(), event.getOrderNumber(), topic, partition, offset);
-            
+        dispatchEach(records, "OrderCreatedEvent", event -> {
             // Process order created event
             // Example: Send email notification, update analytics, etc.
-            logger.info("Processing order: orderId={}, userId={}, totalAmount={}",
-                       event.getOrderId(), event.getUserId(), event.getTotalAmount());
-            
-            // Simulate order processing
+            logger.debug("Processing order: orderId={}, userId={}, totalAmount={}",
+                        event.getOrderId(), event.getUserId(), event.getTotalAmount());
             processOrderCreatedEvent(event);
-            
-            // Acknowledge the message
-            acknowledgment.acknowledge();
-            
-            logger.info("OrderCreatedEvent processed successfully: orderId={}", event.getOrderId());
-        } catch (Exception e) {
-            logger.error("Error processing OrderCreatedEvent: orderId={}", 
-                        event.getOrderId(), e);
-            // In production, you might want to send to a dead-letter queue
-        }
+        });
+        
+        logger.debug("OrderCreatedEvents processed successfully: count={}", records.size());
     }
     
     /**
      * Consume order status changed events
      */
     @KafkaListener(topics = KafkaProducerService.TOPIC_ORDER_STATUS, groupId = "order-status-processor")
-    public void consumeOrderStatusChangedEvent(
-            @Payload OrderStatusChangedEvent event,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
+    public void consumeOrderStatusChangedEvents(List<ConsumerRecord<String, OrderStatusChangedEvent>> records) {
+        logger.debug("Received {} OrderStatusChangedEvents", records.size());
         
-        try {
-            logger.info("Received OrderStatusChangedEvent: orderId={}, oldStatus={}, newStatus={}, topic={}, partition={}, offset={}",
-                       event.getOrderId(), event.getOldStatus(), event.getNewStatus(), topic, partition, offset);
-            
+        dispatchEach(records, "OrderStatusChangedEvent", event -> {
             // Process order status change event
             // Example: Send status update notification, update customer dashboard, etc.
-            logger.info("Processing status change: orderId={}, status: {} -> {}",
-                       event.getOrderId(), event.getOldStatus(), event.getNewStatus());
-            
-            // Simulate status change processing
+            logger.debug("Processing status change: orderId={}, status: {} -> {}",
+                        event.getOrderId(), event.getOldStatus(), event.getNewStatus());
             processOrderStatusChangedEvent(event);
-            
-            // Acknowledge the message
+        });
+        
+        logger.debug("OrderStatusChangedEvents processed successfully: count={}", records.size());
+    }
+    
+    /**
+     * Consume notification events
+     * Notifications only join their user's pending digest here; delivery happens in
+     * NotificationCoalescer once the user's debounce window closes. The batch is acknowledged
+     * once buffered, so delivery is at-most-once (see NotificationCoalescer)
+     */
+    @KafkaListener(topics = KafkaProducerService.TOPIC_NOTIFICATIONS, groupId = "notification-processor")
+    public void consumeNotificationEvents(List<ConsumerRecord<String, NotificationEvent>> records) {
+        logger.debug("Received {} notifications", records.size());
+        
+        processEach(records, "NotificationEvent", notification -> {
+            logger.debug("Processing notification: userId={}, type={}",
+                        notification.getUserId(), notification.getType());
+            processNotificationEvent(notification);
+        });
+        
+        logger.debug("Notifications processed successfully: count={}", records.size());
+    }
+    
+    /**
+     * Consume records that failed on a source topic and wait in a retry tier
+     * Only the records due so far are processed; the rest are negatively acknowledged, which
+     * pauses the consumer until the first of them is due and then redelivers them, so no
+     * listener or dispatcher thread ever sleeps on a retry delay.
+     * Every tier has its own container: all records of a tier wait the same delay, so a record
+     * not yet due holds back the records behind it by at most that delay, and a long tier
+     * never holds back a short one
+     */
+    @KafkaListener(topicPattern = ".*-retry-1", groupId = "retry-processor",
+                   containerFactory = "retryListenerContainerFactory")
+    @KafkaListener(topicPattern = ".*-retry-2", groupId = "retry-processor",
+                   containerFactory = "retryListenerContainerFactory")
+    @KafkaListener(topicPattern = ".*-retry-3", groupId = "retry-processor",
+                   containerFactory = "retryListenerContainerFactory")
+    public void consumeRetries(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        logger.debug("Received {} retry records", records.size());
+        
+        long now = System.currentTimeMillis();
+        int due = 0;
+        while (due < records.size() && dueAt(records.get(due)) <= now) {
+            due++;
+        }
+        List<ConsumerRecord<String, Object>> dueRecords = records.subList(0, due);
+        
+        if (!dueRecords.isEmpty()) {
+            pipelineMetrics.recordBatch(dueRecords);
+            EventDeduplicator.Batch dedup = deduplicator.begin(dueRecords);
+            try {
+                dispatcher.dispatch(dueRecords, "retry record", record -> {
+                    if (dedup.isDuplicate(record)) {
+                        return;
+                    }
+                    pipelineMetrics.recordProcessing(record,
+                            () -> processRetry(RetryTopics.sourceTopicOf(record.topic()), requireValue(record)));
+                    dedup.processed(record);
+                });
+            } finally {
+                deduplicator.complete(dedup);
+            }
+        }
+        
+        if (due < records.size()) {
+            // Commits the processed records; the rest come back once the first of them is due
+            acknowledgment.nack(due, Duration.ofMillis(dueAt(records.get(due)) - now));
+        } else {
             acknowledgment.acknowledge();
-            
-            logger.info("OrderStatusChangedEvent processed successfully: orderId={}", event.getOrderId());
-        } catch (Exception e) {
-            logger.error("Error processing OrderStatusChangedEvent: orderId={}", 
-                        event.getOrderId(), e);
         }
+        
+        logger.debug("Retry records processed successfully: count={}, deferred={}", due, records.size() - due);
     }
     
     /**
-     * Consume inventory updated events
+     * Run the handler for every record of a batch on the key-ordered dispatcher
+     * Redelivered events are skipped; processed ones are recorded for deduplication
      */
-    @KafkaListener(topics = KafkaProducerService.TOPIC_INVENTORY, groupId = "inventory-processor")
-    public void consumeInventoryUpdatedEvent(
-            @Payload InventoryUpdatedEvent event,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
-        
+    private <T> void dispatchEach(List<ConsumerRecord<String, T>> records, String eventName, Consumer<T> handler) {
+        pipelineMetrics.recordBatch(records);
+        EventDeduplicator.Batch dedup = deduplicator.begin(records);
         try {
-            logger.info("Received InventoryUpdatedEvent: productId={}, oldStock={}, newStock={}, reason={}, topic={}, partition={}, offset={}",
-                       event.getProductId(), event.getOldStock(), event.getNewStock(), 
-                       event.getReason(), topic, partition, offset);
-            
-            // Process inventory update event
-            // Example: Trigger reorder alert if stock is low, update analytics, etc.
-            logger.info("Processing inventory update: productId={}, stock: {} -> {} (reason: {})",
-                       event.getProductId(), event.getOldStock(), event.getNewStock(), event.getReason());
-            
-            // Simulate inventory processing
-            processInventoryUpdatedEvent(event);
-            
-            // Acknowledge the message
-            acknowledgment.acknowledge();
-            
-            logger.info("InventoryUpdatedEvent processed successfully: productId={}", event.getProductId());
-        } catch (Exception e) {
-            logger.error("Error processing InventoryUpdatedEvent: productId={}", 
-                        event.getProductId(), e);
+            dispatcher.dispatch(records, eventName, record -> {
+                if (dedup.isDuplicate(record)) {
+                    return;
+                }
+                pipelineMetrics.recordProcessing(record, () -> handler.accept(requireValue(record)));
+                dedup.processed(record);
+            });
+        } finally {
+            deduplicator.complete(dedup);
         }
     }
     
     /**
-     * Consume notification events
+     * Run the handler for every record of a batch, one after another
+     * Used where handlers fold the batch into shared state
+     * A failure is reported with the record's index so offsets before it are committed
+     * and the failed record is handed to the retry topics
      */
-    @KafkaListener(topics = KafkaProducerService.TOPIC_NOTIFICATIONS, groupId = "notification-processor")
-    public void consumeNotificationEvent(
-            @Payload Map<String, Object> notification,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
-        
+    private <T> void processEach(List<ConsumerRecord<String, T>> records, String eventName, Consumer<T> handler) {
+        pipelineMetrics.recordBatch(records);
+        EventDeduplicator.Batch dedup = deduplicator.begin(records);
         try {
-            String userId = (String) notification.get("userId");
-            String message = (String) notification.get("message");
-            String type = (String) notification.get("type");
-            
-            logger.info("Received notification: userId={}, type={}, message={}, topic={}, partition={}, offset={}",
-                       userId, type, message, topic, partition, offset);
-            
-            // Process notification
-            // Example: Send email, SMS, push notification, etc.
-            logger.info("Processing notification: userId={}, type={}", userId, type);
-            
-            // Simulate notification sending
-            processNotificationEvent(notification);
-            
-            // Acknowledge the message
-            acknowledgment.acknowledge();
-            
-            logger.info("Notification processed successfully: userId={}", userId);
-        } catch (Exception e) {
-            logger.error("Error processing notification", e);
+            for (int i = 0; i < records.size(); i++) {
+                ConsumerRecord<String, T> record = records.get(i);
+                if (dedup.isDuplicate(record)) {
+                    continue;
+                }
+                try {
+                    pipelineMetrics.recordProcessing(record, () -> handler.accept(requireValue(record)));
+                } catch (Exception e) {
+                    logger.error("Error processing {}: key={}, topic={}, partition={}, offset={}",
+                                eventName, record.key(), record.topic(), record.partition(), record.offset(), e);
+                    throw new BatchListenerFailedException("Failed to process " + eventName, e, i);
+                }
+                dedup.processed(record);
+            }
+        } finally {
+            deduplicator.complete(dedup);
+        }
+    }
+    
+    private static <T> T requireValue(ConsumerRecord<String, T> record) {
+        if (record.value() == null) {
+            throw new IllegalStateException("Record value is missing or could not be deserialized");
+        }
+        return record.value();
+    }
+    
+    /**
+     * Epoch millis at which a retry record may be processed (0 when it carries no delay)
+     */
+    private static long dueAt(ConsumerRecord<String, Object> record) {
+        Header dueAt = record.headers().lastHeader(RetryTopics.DUE_AT_HEADER);
+        return dueAt != null ? Long.parseLong(new String(dueAt.value(), StandardCharsets.UTF_8)) : 0L;
+    }
+    
+    /**
+     * Process one retried record with the handler of its source topic
+     */
+    private void processRetry(String sourceTopic, Object value) {
+        switch (sourceTopic) {
+            case KafkaProducerService.TOPIC_ORDERS:
+                processOrderCreatedEvent((OrderCreatedEvent) value);
+                break;
+            case KafkaProducerService.TOPIC_ORDER_STATUS:
+                processOrderStatusChangedEvent((OrderStatusChangedEvent) value);
+                break;
+            case KafkaProducerService.TOPIC_NOTIFICATIONS:
+                processNotificationEvent((NotificationEvent) value);
+                break;
+            default:
+                throw new IllegalArgumentException("No handler for topic: " + sourceTopic);
         }
     }
     
@@ -164,7 +240,8 @@ public class KafkaConsumerService {
      */
     private void processOrderCreatedEvent(OrderCreatedEvent event) {
         // Implement order processing logic
-        // Example: Send confirmation email, update analytics, etc.
+        // Example: Send confirmation email, etc.
+        // Sales analytics consume the topic themselves, on every node (SalesAnalyticsService)
         logger.debug("Order processing: orderId={}", event.getOrderId());
     }
     
@@ -173,33 +250,24 @@ public class KafkaConsumerService {
      */
     private void processOrderStatusChangedEvent(OrderStatusChangedEvent event) {
         // Implement status change processing logic
-        // Example: Send status update email, update customer dashboard, etc.
+        // Example: Update customer dashboard, etc.
         logger.debug("Status change processing: orderId={}", event.getOrderId());
-    }
-    
-    /**
-     * Process inventory updated event
-     */
-    private void processInventoryUpdatedEvent(InventoryUpdatedEvent event) {
-        // Implement inventory processing logic
-        // Example: Check if reorder is needed, update analytics, etc.
-        logger.debug("Inventory processing: productId={}", event.getProductId());
-        
-        // Example: Trigger reorder alert if stock is low
-        if (event.getNewStock() < 10) {
-            logger.warn("Low stock alert: productId={}, stock={}", 
-                       event.getProductId(), event.getNewStock());
+        if (event.getUserId() != null) {
+            // Goes through the notifications topic so the user's partition owner coalesces it
+            kafkaProducerService.sendNotificationEvent(new NotificationEvent(
+                    event.getUserId(),
+                    NotificationEvent.TYPE_ORDER_STATUS,
+                    event.getOrderId(),
+                    "Order " + event.getOrderNumber() + " is now " + event.getNewStatus(),
+                    event.getUpdatedAt()
+            ));
         }
     }
     
     /**
      * Process notification event
      */
-    private void processNotificationEvent(Map<String, Object> notification) {
-        // Implement notification sending logic
-        // Example: Send email, SMS, push notification, etc.
-        String userId = (String) notification.get("userId");
-        logger.debug("Notification sending: userId={}", userId);
+    private void processNotificationEvent(NotificationEvent notification) {
+        notificationCoalescer.add(notification);
     }
 }
-
@@ -1,22 +1,19 @@
 package com.ecommerce.service;
 
+import com.ecommerce.event.IdentifiedEvent;
 import com.ecommerce.event.InventoryUpdatedEvent;
+import com.ecommerce.event.NotificationEvent;
 import com.ecommerce.event.OrderCreatedEvent;
+import com.ecommerce.event.OrderInventoryChangedEvent;
 import com.ecommerce.event.OrderStatusChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-
 /**
  * Kafka Producer Service
- * Handles sending events to Kafka topics
+ * Handles sending events to Kafka topics (through the non-blocking EventPublisher)
  */
 @Service
 public class KafkaProducerService {
@@ -27,117 +24,60 @@ public class KafkaProducerService {
     public static final String TOPIC_ORDERS = "orders";
     public static final String TOPIC_ORDER_STATUS = "order-status";
     public static final String TOPIC_INVENTORY = "inventory";
+    public static final String TOPIC_INVENTORY_CHANGES = "inventory-changes";
     public static final String TOPIC_NOTIFICATIONS = "notifications";
     
     @Autowired
-    private KafkaTemplate<String, Object> kafkaTemplate;
+    private EventPublisher eventPublisher;
     
     /**
      * Send order created event
      */
     public void sendOrderCreatedEvent(OrderCreatedEvent event) {
-        try {
-            logger.info("Sending OrderCreatedEvent: orderId={}, orderNumber={}", 
-                       event.getOrderId(), event.getOrderNumber());
-            
-            CompletableFuture<SendResult<String, Object>> future = 
-                kafkaTemplate.send(TOPIC_ORDERS, String.valueOf(event.getOrderId()), event);
-            
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    logger.info("OrderCreatedEvent sent successfully: orderId={}, offset={}", 
-                               event.getOrderId(), result.getRecordMetadata().offset());
-                } else {
-                    logger.error("Failed to send OrderCreatedEvent: orderId={}", 
-                                event.getOrderId(), ex);
-                }
-            });
-        } catch (Exception e) {
-            logger.error("Error sending OrderCreatedEvent: orderId={}", 
-                        event.getOrderId(), e);
-        }
+        logger.debug("Sending OrderCreatedEvent: orderId={}, orderNumber={}", 
+                    event.getOrderId(), event.getOrderNumber());
+        send(TOPIC_ORDERS, String.valueOf(event.getOrderId()), event);
     }
     
     /**
      * Send order status changed event
      */
     public void sendOrderStatusChangedEvent(OrderStatusChangedEvent event) {
-        try {
-            logger.info("Sending OrderStatusChangedEvent: orderId={}, oldStatus={}, newStatus={}", 
-                       event.getOrderId(), event.getOldStatus(), event.getNewStatus());
-            
-            CompletableFuture<SendResult<String, Object>> future = 
-                kafkaTemplate.send(TOPIC_ORDER_STATUS, String.valueOf(event.getOrderId()), event);
-            
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    logger.info("OrderStatusChangedEvent sent successfully: orderId={}, offset={}", 
-                               event.getOrderId(), result.getRecordMetadata().offset());
-                } else {
-                    logger.error("Failed to send OrderStatusChangedEvent: orderId={}", 
-                                event.getOrderId(), ex);
-                }
-            });
-        } catch (Exception e) {
-            logger.error("Error sending OrderStatusChangedEvent: orderId={}", 
-                        event.getOrderId(), e);
-        }
+        logger.debug("Sending OrderStatusChangedEvent: orderId={}, oldStatus={}, newStatus={}", 
+                    event.getOrderId(), event.getOldStatus(), event.getNewStatus());
+        send(TOPIC_ORDER_STATUS, String.valueOf(event.getOrderId()), event);
     }
     
     /**
      * Send inventory updated event
      */
     public void sendInventoryUpdatedEvent(InventoryUpdatedEvent event) {
-        try {
-            logger.info("Sending InventoryUpdatedEvent: productId={}, oldStock={}, newStock={}", 
-                       event.getProductId(), event.getOldStock(), event.getNewStock());
-            
-            CompletableFuture<SendResult<String, Object>> future = 
-                kafkaTemplate.send(TOPIC_INVENTORY, String.valueOf(event.getProductId()), event);
-            
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    logger.info("InventoryUpdatedEvent sent successfully: productId={}, offset={}", 
-                               event.getProductId(), result.getRecordMetadata().offset());
-                } else {
-                    logger.error("Failed to send InventoryUpdatedEvent: productId={}", 
-                                event.getProductId(), ex);
-                }
-            });
-        } catch (Exception e) {
-            logger.error("Error sending InventoryUpdatedEvent: productId={}", 
-                        event.getProductId(), e);
-        }
+        logger.debug("Sending InventoryUpdatedEvent: productId={}, oldStock={}, newStock={}", 
+                    event.getProductId(), event.getOldStock(), event.getNewStock());
+        send(TOPIC_INVENTORY, String.valueOf(event.getProductId()), event);
+    }
+    
+    /**
+     * Send the aggregated inventory changes of one order
+     */
+    public void sendOrderInventoryChangedEvent(OrderInventoryChangedEvent event) {
+        logger.debug("Sending OrderInventoryChangedEvent: orderId={}, reason={}, lines={}", 
+                    event.getOrderId(), event.getReason(), event.getChanges().size());
+        send(TOPIC_INVENTORY_CHANGES, String.valueOf(event.getOrderId()), event);
     }
     
     /**
-     * Send notification event (generic method)
+     * Send notification event, keyed by user so one user's notifications share a partition
      */
-    public void sendNotificationEvent(String userId, String message, String type) {
-        try {
-            Map<String, Object> notification = Map.of(
-                "userId", userId,
-                "message", message,
-                "type", type,
-                "timestamp", System.currentTimeMillis()
-            );
-            
-            logger.info("Sending notification: userId={}, type={}", userId, type);
-            
-            CompletableFuture<SendResult<String, Object>> future = 
-                kafkaTemplate.send(TOPIC_NOTIFICATIONS, userId, notification);
-            
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    logger.info("Notification sent successfully: userId={}, offset={}", 
-                               userId, result.getRecordMetadata().offset());
-                } else {
-                    logger.error("Failed to send notification: userId={}", userId, ex);
-                }
-            });
-        } catch (Exception e) {
-            logger.error("Error sending notification: userId={}", userId, e);
-        }
+    public void sendNotificationEvent(NotificationEvent event) {
+        logger.debug("Sending NotificationEvent: userId={}, type={}", event.getUserId(), event.getType());
+        send(TOPIC_NOTIFICATIONS, String.valueOf(event.getUserId()), event);
+    }
+    
+    /**
+     * Hand an event to the publisher; returns without waiting for the broker
+     */
+    private void send(String topic, String key, IdentifiedEvent event) {
+        eventPublisher.publish(topic, key, event);
     }
 }
-
@@ -0,0 +1,121 @@
+package com.ecommerce.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Key-Ordered Dispatcher
+ * Processes the records of a batch in parallel across keys while records with the
+ * same key (orderId, productId, userId) still run one after another in offset order.
+ * Ordering holds up to a failure only: a failed record is handed to the retry topics and
+ * everything after the lowest failed index is redelivered, so later records of its key are
+ * processed before the retry and handlers must tolerate that record arriving late. Keeping
+ * the order past a failure would mean parking every later record of the key as well
+ */
+@Service
+public class KeyOrderedDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyOrderedDispatcher.class);
+
+    @Value("${events.dispatcher.threads:16}")
+    private int threads;
+
+    @Value("${events.dispatcher.queue-capacity:1000}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "event-dispatcher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // A full queue makes the listener thread run the lane itself (back-pressure on polling)
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Handle every record of a batch, grouped into per-key lanes
+     * A failure stops the rest of its lane; once all lanes finish, the lowest failed index is
+     * reported so only offsets below it are committed and the remainder is redelivered
+     */
+    public <T> void dispatch(List<ConsumerRecord<String, T>> records, String eventName, RecordHandler<T> handler) {
+        Map<Object, List<Integer>> lanes = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            String key = records.get(i).key();
+            // Unkeyed records carry no ordering requirement
+            lanes.computeIfAbsent(key != null ? key : new Object(), k -> new ArrayList<>()).add(i);
+        }
+
+        ConcurrentSkipListMap<Integer, Exception> failures = new ConcurrentSkipListMap<>();
+        if (lanes.size() == 1) {
+            runLane(records, lanes.values().iterator().next(), eventName, handler, failures);
+        } else {
+            List<CompletableFuture<Void>> tasks = new ArrayList<>(lanes.size());
+            for (List<Integer> lane : lanes.values()) {
+                tasks.add(CompletableFuture.runAsync(
+                        () -> runLane(records, lane, eventName, handler, failures), executor));
+            }
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        }
+
+        if (!failures.isEmpty()) {
+            Map.Entry<Integer, Exception> lowest = failures.firstEntry();
+            throw new BatchListenerFailedException("Failed to process " + eventName, lowest.getValue(), lowest.getKey());
+        }
+    }
+
+    private <T> void runLane(List<ConsumerRecord<String, T>> records, List<Integer> lane, String eventName,
+                             RecordHandler<T> handler, Map<Integer, Exception> failures) {
+        for (int index : lane) {
+            ConsumerRecord<String, T> record = records.get(index);
+            try {
+                handler.handle(record);
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                logger.error("Error processing {}: key={}, topic={}, partition={}, offset={}",
+                            eventName, record.key(), record.topic(), record.partition(), record.offset(), e);
+                failures.put(index, e);
+                // Later records of this key must not overtake the failed one
+                return;
+            }
+        }
+    }
+
+    /**
+     * Handler of a single record
+     */
+    @FunctionalInterface
+    public interface RecordHandler<T> {
+        void handle(ConsumerRecord<String, T> record) throws Exception;
+    }
+}
@@ -0,0 +1,155 @@
+package com.ecommerce.service;
+
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.util.BloomFilter;
+import com.ecommerce.util.RedisUtil;
+import com.ecommerce.util.TransactionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Negative Lookup Cache
+ * Rejects lookups of ids that cannot exist without touching Redis or MySQL,
+ * and remembers recent misses as short-lived Redis tombstones
+ */
+@Service
+public class NegativeLookupCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(NegativeLookupCache.class);
+
+    public static final String PRODUCT = "product";
+    public static final String ORDER = "order";
+
+    private static final String TOMBSTONE_PREFIX = "tombstone:";
+    private static final int ID_SCAN_PAGE_SIZE = 10_000;
+    // Ids just below the scanned maximum may still be committing; never treat them as impossible
+    private static final long CEILING_SAFETY_MARGIN = 1_000;
+
+    @Value("${cache.negative.tombstone-ttl-seconds:60}")
+    private long tombstoneTtlSeconds;
+
+    @Value("${cache.negative.expected-ids:1000000}")
+    private long expectedIds;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private RedisUtil redisUtil;
+
+    private final Map<String, KnownIds> knownIds = new ConcurrentHashMap<>();
+
+    /**
+     * Rebuild the known-id filters from the database
+     * Runs at startup and periodically afterwards
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${cache.negative.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        try {
+            knownIds.put(PRODUCT, scan(productRepository::findIdsAfter));
+            knownIds.put(ORDER, scan(orderRepository::findIdsAfter));
+            logger.info("Known-id filters rebuilt: productCeiling={}, orderCeiling={}",
+                       knownIds.get(PRODUCT).ceiling, knownIds.get(ORDER).ceiling);
+        } catch (Exception e) {
+            logger.warn("Failed to rebuild known-id filters", e);
+        }
+    }
+
+    /**
+     * True when the id certainly does not exist (no I/O)
+     * Ids above the last scanned maximum may have been created on another node and always pass
+     */
+    public boolean isImpossible(String namespace, Long id) {
+        if (id == null || id <= 0) {
+            return true;
+        }
+        KnownIds known = knownIds.get(namespace);
+        return known != null && id <= known.ceiling && !known.filter.mightContain(id);
+    }
+
+    /**
+     * True when a recent lookup of this id already missed the database
+     */
+    public boolean hasTombstone(String namespace, Long id) {
+        try {
+            return Boolean.TRUE.equals(redisUtil.hasKey(tombstoneKey(namespace, id)));
+        } catch (Exception e) {
+            logger.warn("Failed to read tombstone: {}:{}", namespace, id, e);
+            return false;
+        }
+    }
+
+    /**
+     * Remember a database miss for a short time
+     */
+    public void recordMissing(String namespace, Long id) {
+        try {
+            redisUtil.set(tombstoneKey(namespace, id), Boolean.TRUE, tombstoneTtlSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.warn("Failed to write tombstone: {}:{}", namespace, id, e);
+        }
+    }
+
+    /**
+     * Register a newly created id and clear any tombstone once the creation commits
+     */
+    public void recordCreated(String namespace, Long id) {
+        KnownIds known = knownIds.get(namespace);
+        if (known != null) {
+            known.filter.put(id);
+        }
+        TransactionUtil.afterCommit(() -> {
+            try {
+                redisUtil.delete(tombstoneKey(namespace, id));
+            } catch (Exception e) {
+                logger.warn("Failed to clear tombstone: {}:{}", namespace, id, e);
+            }
+        });
+    }
+
+    private KnownIds scan(BiFunction<Long, Pageable, List<Long>> idPage) {
+        BloomFilter filter = new BloomFilter(expectedIds, 0.01);
+        long lastId = 0;
+        List<Long> page;
+        do {
+            page = idPage.apply(lastId, PageRequest.of(0, ID_SCAN_PAGE_SIZE));
+            for (Long id : page) {
+                filter.put(id);
+            }
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1);
+            }
+        } while (page.size() == ID_SCAN_PAGE_SIZE);
+        return new KnownIds(filter, lastId - CEILING_SAFETY_MARGIN);
+    }
+
+    private static String tombstoneKey(String namespace, Long id) {
+        return TOMBSTONE_PREFIX + namespace + ":" + id;
+    }
+
+    private static final class KnownIds {
+        private final BloomFilter filter;
+        private final long ceiling;
+
+        private KnownIds(BloomFilter filter, long ceiling) {
+            this.filter = filter;
+            this.ceiling = ceiling;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.ecommerce.service;
+
+import com.ecommerce.event.NotificationEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Notification Coalescer
+ * Collects notifications per user and delivers them as one digest once the user has been
+ * quiet for the debounce window (or the oldest entry reached the maximum delay), so a burst
+ * of order-status changes becomes a single email/push instead of one per event.
+ * Delivery is at-most-once: the notifications listener commits a batch's offsets as soon as
+ * its events are buffered here, so a node that dies without a graceful shutdown loses what
+ * it had pending (up to max-delay-ms of notifications plus the delivery queue), and a failed
+ * delivery is logged, not retried. Notifications are advisory, and the order state they
+ * describe is in the database; holding offsets until every digest was delivered would stall
+ * the partition behind the slowest user's debounce window
+ */
+@Service
+public class NotificationCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationCoalescer.class);
+
+    @Value("${notifications.coalesce.debounce-ms:2000}")
+    private long debounceMs;
+
+    @Value("${notifications.coalesce.max-delay-ms:10000}")
+    private long maxDelayMs;
+
+    @Value("${notifications.coalesce.max-digest-size:50}")
+    private int maxDigestSize;
+
+    @Value("${notifications.coalesce.max-pending-users:10000}")
+    private int maxPendingUsers;
+
+    @Value("${notifications.delivery.threads:4}")
+    private int deliveryThreads;
+
+    @Value("${notifications.delivery.queue-capacity:1000}")
+    private int deliveryQueueCapacity;
+
+    private final Map<Long, Digest> pending = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor deliveryExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        deliveryExecutor = new ThreadPoolExecutor(deliveryThreads, deliveryThreads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(deliveryQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-delivery-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // A full queue slows the flusher (and pending digests keep coalescing) instead of dropping
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Deliver everything still pending, so a graceful shutdown loses no acknowledged notification
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (Long userId : pending.keySet()) {
+            Digest digest = pending.remove(userId);
+            if (digest != null) {
+                submit(digest);
+            }
+        }
+        deliveryExecutor.shutdown();
+        deliveryExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Add a notification to its user's pending digest
+     * A full digest is delivered right away; when maxPendingUsers users are already waiting,
+     * a new user's notification is delivered on its own.
+     * The caller's offsets may be committed once this returns (see the class doc)
+     */
+    public void add(NotificationEvent event) {
+        if (event.getUserId() == null) {
+            throw new IllegalArgumentException("Notification without userId");
+        }
+        long now = System.currentTimeMillis();
+        if (!pending.containsKey(event.getUserId()) && pending.size() >= maxPendingUsers) {
+            Digest single = new Digest(event.getUserId(), now);
+            single.add(event, now);
+            submit(single);
+            return;
+        }
+
+        Digest[] full = new Digest[1];
+        pending.compute(event.getUserId(), (userId, digest) -> {
+            Digest target = digest != null ? digest : new Digest(userId, now);
+            target.add(event, now);
+            if (target.size() >= maxDigestSize) {
+                full[0] = target;
+                return null;
+            }
+            return target;
+        });
+        if (full[0] != null) {
+            submit(full[0]);
+        }
+    }
+
+    /**
+     * Hand every digest whose debounce window or maximum delay has elapsed to delivery
+     */
+    @Scheduled(fixedDelayString = "${notifications.coalesce.flush-interval-ms:250}")
+    public void flushDue() {
+        long now = System.currentTimeMillis();
+        for (Long userId : pending.keySet()) {
+            Digest[] due = new Digest[1];
+            pending.computeIfPresent(userId, (id, digest) -> {
+                if (now - digest.lastAt >= debounceMs || now - digest.firstAt >= maxDelayMs) {
+                    due[0] = digest;
+                    return null;
+                }
+                return digest;
+            });
+            if (due[0] != null) {
+                submit(due[0]);
+            }
+        }
+    }
+
+    public int getPendingUsers() {
+        return pending.size();
+    }
+
+    private void submit(Digest digest) {
+        deliveryExecutor.execute(() -> {
+            try {
+                deliver(digest);
+            } catch (Exception e) {
+                logger.error("Failed to deliver notification digest: userId={}, notifications={}",
+                            digest.userId, digest.size(), e);
+            }
+        });
+    }
+
+    /**
+     * Deliver one digest to the user
+     */
+    private void deliver(Digest digest) {
+        // Implement notification sending logic
+        // Example: Send one email, SMS or push notification for the whole digest
+        List<NotificationEvent> notifications = digest.notifications();
+        logger.info("Delivering notification digest: userId={}, notifications={}, received={}",
+                   digest.userId, notifications.size(), digest.received);
+        for (NotificationEvent notification : notifications) {
+            logger.debug("Digest entry: userId={}, type={}, referenceId={}, message={}",
+                        digest.userId, notification.getType(), notification.getReferenceId(),
+                        notification.getMessage());
+        }
+    }
+
+    /**
+     * Pending notifications of one user
+     * A newer notification about the same reference (e.g. the next status of one order)
+     * replaces the older one, so only the latest state is delivered
+     */
+    private static final class Digest {
+
+        private final Long userId;
+        private final long firstAt;
+        private long lastAt;
+        private int received;
+        private final LinkedHashMap<Object, NotificationEvent> entries = new LinkedHashMap<>();
+
+        Digest(Long userId, long now) {
+            this.userId = userId;
+            this.firstAt = now;
+            this.lastAt = now;
+        }
+
+        void add(NotificationEvent event, long now) {
+            Object key = event.getReferenceId() != null
+                    ? event.getType() + ":" + event.getReferenceId()
+                    : new Object();
+            entries.remove(key);
+            entries.put(key, event);
+            lastAt = now;
+            received++;
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        List<NotificationEvent> notifications() {
+            return new ArrayList<>(entries.values());
+        }
+    }
+}
@@ -5,8 +5,9 @@ import com.ecommerce.dto.OrderItemResponse;
 import com.ecommerce.dto.OrderRequest;
 import com.ecommerce.dto.OrderResponse;
 import com.ecommerce.dto.OrderStatusUpdateRequest;
-import com.ecommerce.event.InventoryUpdatedEvent;
 import com.ecommerce.event.OrderCreatedEvent;
+import com.ecommerce.event.OrderInventoryChangedEvent;
+import com.ecommerce.event.OrderInventoryChangedEvent.StockChange;
 import com.ecommerce.event.OrderStatusChangedEvent;
 import com.ecommerce.model.Order;
 import com.ecommerce.model.OrderItem;
@@ -16,6 +17,10 @@ import com.ecommerce.model.User;
 import com.ecommerce.repository.OrderRepository;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.repository.UserRepository;
+import com.ecommerce.util.TransactionUtil;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -28,8 +33,13 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -37,10 +47,13 @@ import java.util.stream.Collectors;
  * Business logic for order management with Redis caching
  */
 @Service
+@Timed(value = "service.method", description = "Service method latency", histogram = true)
 @Transactional
 @SuppressWarnings("null")
 public class OrderService {
 
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -52,6 +65,12 @@ public class OrderService {
     
     @Autowired
     private KafkaProducerService kafkaProducerService;
+    
+    @Autowired
+    private ProductStockCache productStockCache;
+    
+    @Autowired
+    private NegativeLookupCache negativeLookupCache;
 
     private OrderResponse convertToResponse(Order order) {
         Objects.requireNonNull(order, "order must not be null");
@@ -134,24 +153,29 @@ public class OrderService {
 
     /**
      * Get order by ID
-     * Cached for 5 minutes
+     * Cached for 5 minutes; ids rejected by the known-id filter skip the cache lookup
      */
-    @Cacheable(value = "order", key = "#id")
+    @Cacheable(value = "order", key = "#id",
+               condition = "!@negativeLookupCache.isImpossible('order', #id)")
     public OrderResponse getOrderById(Long id) {
         Objects.requireNonNull(id, "id must not be null");
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
+        if (negativeLookupCache.isImpossible(NegativeLookupCache.ORDER, id)
+                || negativeLookupCache.hasTombstone(NegativeLookupCache.ORDER, id)) {
+            throw new RuntimeException("Order not found with id: " + id);
+        }
+        Order order = orderRepository.findById(id).orElse(null);
+        if (order == null) {
+            negativeLookupCache.recordMissing(NegativeLookupCache.ORDER, id);
+            throw new RuntimeException("Order not found with id: " + id);
+        }
         return convertToResponse(order);
     }
 
     /**
      * Create a new order
-     * Evicts orders cache and product cache (stock updated)
+     * Evicts orders cache; stock changes go to the live stock counters
      */
-    @Caching(evict = {
-        @CacheEvict(value = "orders", allEntries = true),
-        @CacheEvict(value = "product", allEntries = true) // Product stock changed
-    })
+    @CacheEvict(value = "orders", allEntries = true)
     public OrderResponse createOrder(OrderRequest request) {
         if (request.getItems() == null || request.getItems().isEmpty()) {
             throw new RuntimeException("Order must contain at least one item");
@@ -171,22 +195,18 @@ public class OrderService {
         List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
         int totalItems = 0;
-        // Track old stock values before modification for Kafka events
-        java.util.Map<Long, Integer> oldStockMap = new java.util.HashMap<>();
+        // Stock changes of every line, published as one inventory event
+        List<StockChange> stockChanges = new ArrayList<>();
+        Map<Long, Product> products = lockProducts(requestedProductIds(request));
 
         for (OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found with id: " + itemRequest.getProductId()));
+            Product product = products.get(itemRequest.getProductId());
 
             if (product.getStock() < itemRequest.getQuantity()) {
                 throw new RuntimeException("Insufficient stock for product: " + product.getName());
             }
 
-            // Track old stock before modification
-            oldStockMap.put(product.getId(), product.getStock());
-            
-            product.setStock(product.getStock() - itemRequest.getQuantity());
-            productRepository.save(product);
+            stockChanges.add(deductStock(product, itemRequest.getQuantity()));
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
@@ -210,10 +230,12 @@ public class OrderService {
 
         Order savedOrder = orderRepository.save(order);
         OrderResponse response = convertToResponse(savedOrder);
+        refreshStockCounters(savedOrder.getItems());
+        negativeLookupCache.recordCreated(NegativeLookupCache.ORDER, savedOrder.getId());
         
         // Send Kafka events
         sendOrderCreatedEvent(savedOrder);
-        sendInventoryUpdatedEvents(savedOrder, "ORDER_CREATED", oldStockMap);
+        sendOrderInventoryChangedEvent(savedOrder, "ORDER_CREATED", stockChanges);
         
         return response;
     }
@@ -235,16 +257,10 @@ public class OrderService {
         order.setStatus(request.getStatus());
 
         if (request.getStatus() == OrderStatus.CANCELLED && previousStatus != OrderStatus.CANCELLED) {
-            // Track old stock before restoring inventory
-            java.util.Map<Long, Integer> oldStockMap = new java.util.HashMap<>();
-            for (OrderItem item : order.getItems()) {
-                Product product = item.getProduct();
-                oldStockMap.put(product.getId(), product.getStock());
-            }
-            
-            restoreInventory(order);
+            List<StockChange> stockChanges = restoreInventory(order, lockProducts(productIdsOf(order.getItems())));
             order.setPaymentStatus("REFUNDED");
-            sendInventoryUpdatedEvents(order, "ORDER_CANCELLED", oldStockMap);
+            refreshStockCounters(order.getItems());
+            sendOrderInventoryChangedEvent(order, "ORDER_CANCELLED", stockChanges);
         }
 
         Order savedOrder = orderRepository.save(order);
@@ -257,12 +273,11 @@ public class OrderService {
 
     /**
      * Update order
-     * Evicts order and orders cache, and product cache (stock updated)
+     * Evicts order and orders cache; stock changes go to the live stock counters
      */
     @Caching(evict = {
         @CacheEvict(value = "order", key = "#orderId"),
-        @CacheEvict(value = "orders", allEntries = true),
-        @CacheEvict(value = "product", allEntries = true) // Product stock changed
+        @CacheEvict(value = "orders", allEntries = true)
     })
     public OrderResponse updateOrder(Long orderId, OrderRequest request) {
         Objects.requireNonNull(orderId, "orderId must not be null");
@@ -273,17 +288,14 @@ public class OrderService {
             throw new RuntimeException("Cannot update a cancelled order");
         }
 
-        // Track old items' stock and quantities before restoring inventory (for Kafka events)
-        java.util.Map<Long, Integer> oldStockBeforeRestore = new java.util.HashMap<>();
-        java.util.Map<Long, Integer> restoredQuantities = new java.util.HashMap<>();
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            oldStockBeforeRestore.put(product.getId(), product.getStock());
-            restoredQuantities.put(product.getId(), item.getQuantity());
-        }
-        
-        // Restore inventory for existing items
-        restoreInventory(order);
+        // Lock every product the update touches before changing any of them
+        Set<Long> productIds = productIdsOf(order.getItems());
+        productIds.addAll(requestedProductIds(request));
+        Map<Long, Product> products = lockProducts(productIds);
+
+        // Restore inventory for existing items; restored and deducted lines share one inventory event
+        List<StockChange> stockChanges = restoreInventory(order, products);
+        List<OrderItem> removedItems = new ArrayList<>(order.getItems());
         order.getItems().clear();
 
         order.setShippingAddress(request.getShippingAddress());
@@ -294,22 +306,15 @@ public class OrderService {
         List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
         int totalItems = 0;
-        // Track old stock values before deducting new items (for Kafka events)
-        java.util.Map<Long, Integer> oldStockBeforeDeduction = new java.util.HashMap<>();
 
         for (OrderItemRequest itemRequest : request.getItems()) {
-            Product product = productRepository.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product not found with id: " + itemRequest.getProductId()));
+            Product product = products.get(itemRequest.getProductId());
 
             if (product.getStock() < itemRequest.getQuantity()) {
                 throw new RuntimeException("Insufficient stock for product: " + product.getName());
             }
 
-            // Track old stock before modification
-            oldStockBeforeDeduction.put(product.getId(), product.getStock());
-            
-            product.setStock(product.getStock() - itemRequest.getQuantity());
-            productRepository.save(product);
+            stockChanges.add(deductStock(product, itemRequest.getQuantity()));
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
@@ -331,43 +336,40 @@ public class OrderService {
         order.setTotalItems(totalItems);
 
         Order savedOrder = orderRepository.save(order);
+        removedItems.addAll(savedOrder.getItems());
+        refreshStockCounters(removedItems);
         
-        // Send Kafka events for inventory updates
-        // First, send events for restored items (if any were removed)
-        if (!oldStockBeforeRestore.isEmpty()) {
-            sendInventoryUpdatedEventsForRestoredItems(order, oldStockBeforeRestore, restoredQuantities);
-        }
-        // Then, send events for newly deducted items
-        sendInventoryUpdatedEvents(savedOrder, "ORDER_UPDATED", oldStockBeforeDeduction);
+        // Send one Kafka event with the restored and newly deducted lines
+        sendOrderInventoryChangedEvent(savedOrder, "ORDER_UPDATED", stockChanges);
         
         return convertToResponse(savedOrder);
     }
 
     /**
      * Delete order
-     * Evicts order and orders cache, and product cache (stock restored)
+     * Evicts order and orders cache; restored stock goes to the live stock counters
      */
     @Caching(evict = {
         @CacheEvict(value = "order", key = "#orderId"),
-        @CacheEvict(value = "orders", allEntries = true),
-        @CacheEvict(value = "product", allEntries = true) // Product stock restored
+        @CacheEvict(value = "orders", allEntries = true)
     })
     public void deleteOrder(Long orderId) {
         Objects.requireNonNull(orderId, "orderId must not be null");
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
-        restoreInventory(order);
+        List<StockChange> stockChanges = restoreInventory(order, lockProducts(productIdsOf(order.getItems())));
+        refreshStockCounters(order.getItems());
         orderRepository.delete(order);
+        sendOrderInventoryChangedEvent(order, "ORDER_DELETED", stockChanges);
     }
 
     /**
      * Cancel order
-     * Evicts order and orders cache, and product cache (stock restored)
+     * Evicts order and orders cache; restored stock goes to the live stock counters
      */
     @Caching(evict = {
         @CacheEvict(value = "order", key = "#orderId"),
-        @CacheEvict(value = "orders", allEntries = true),
-        @CacheEvict(value = "product", allEntries = true) // Product stock restored
+        @CacheEvict(value = "orders", allEntries = true)
     })
     public OrderResponse cancelOrder(Long orderId) {
         Objects.requireNonNull(orderId, "orderId must not be null");
@@ -380,35 +382,98 @@ public class OrderService {
         order.setStatus(OrderStatus.CANCELLED);
         order.setPaymentStatus("REFUNDED");
         
-        // Track old stock before restoring inventory
-        java.util.Map<Long, Integer> oldStockMap = new java.util.HashMap<>();
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            oldStockMap.put(product.getId(), product.getStock());
-        }
-        
-        restoreInventory(order);
+        List<StockChange> stockChanges = restoreInventory(order, lockProducts(productIdsOf(order.getItems())));
         
         Order savedOrder = orderRepository.save(order);
+        refreshStockCounters(savedOrder.getItems());
         
         // Send Kafka events
         sendOrderStatusChangedEvent(savedOrder, previousStatus);
-        sendInventoryUpdatedEvents(savedOrder, "ORDER_CANCELLED", oldStockMap);
+        sendOrderInventoryChangedEvent(savedOrder, "ORDER_CANCELLED", stockChanges);
         
         return convertToResponse(savedOrder);
     }
 
-    private void restoreInventory(Order order) {
+    /**
+     * Put the items' quantities back into stock
+     * The products must have been locked; returns the per-line stock changes for the inventory event
+     */
+    private List<StockChange> restoreInventory(Order order, Map<Long, Product> lockedProducts) {
         Objects.requireNonNull(order, "order must not be null");
+        List<StockChange> stockChanges = new ArrayList<>();
         for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            product.setStock(product.getStock() + item.getQuantity());
+            Product product = lockedProducts.get(item.getProduct().getId());
+            int oldStock = product.getStock();
+            product.setStock(oldStock + item.getQuantity());
+            product.setStockVersion(product.getStockVersion() + 1);
             productRepository.save(product);
+            stockChanges.add(new StockChange(product.getId(), product.getName(),
+                    oldStock, product.getStock(), item.getQuantity(), product.getStockVersion()));
+        }
+        return stockChanges;
+    }
+    
+    /**
+     * Lock the products' rows and read their current stock, in one query
+     * Stock is checked and written back on these rows, never on a second-level cache copy another
+     * node may have changed since; concurrent orders wait on the locks, which are taken in
+     * ascending id order so they cannot deadlock
+     */
+    private Map<Long, Product> lockProducts(Set<Long> productIds) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllByIdForUpdate(productIds)) {
+            products.put(product.getId(), product);
+        }
+        for (Long productId : new TreeSet<>(productIds)) {
+            if (!products.containsKey(productId)) {
+                throw new RuntimeException("Product not found with id: " + productId);
+            }
+        }
+        return products;
+    }
+    
+    private static Set<Long> requestedProductIds(OrderRequest request) {
+        Set<Long> productIds = new HashSet<>();
+        for (OrderItemRequest itemRequest : request.getItems()) {
+            productIds.add(Objects.requireNonNull(itemRequest.getProductId(), "productId must not be null"));
         }
+        return productIds;
+    }
+    
+    private static Set<Long> productIdsOf(List<OrderItem> items) {
+        Set<Long> productIds = new HashSet<>();
+        for (OrderItem item : items) {
+            productIds.add(item.getProduct().getId());
+        }
+        return productIds;
+    }
+    
+    /**
+     * Take the quantity out of stock
+     * Returns the stock change for the inventory event
+     */
+    private StockChange deductStock(Product product, int quantity) {
+        int oldStock = product.getStock();
+        product.setStock(oldStock - quantity);
+        product.setStockVersion(product.getStockVersion() + 1);
+        productRepository.save(product);
+        return new StockChange(product.getId(), product.getName(), oldStock, product.getStock(), -quantity,
+                product.getStockVersion());
     }
     
     /**
-     * Send order created event to Kafka
+     * Publish the current stock of the items' products to the live stock counters
+     */
+    private void refreshStockCounters(List<OrderItem> items) {
+        Map<Long, Product> products = new HashMap<>();
+        for (OrderItem item : items) {
+            products.put(item.getProduct().getId(), item.getProduct());
+        }
+        productStockCache.updateStock(products.values());
+    }
+    
+    /**
+     * Send order created event to Kafka once the transaction commits
      */
     private void sendOrderCreatedEvent(Order order) {
         try {
@@ -418,7 +483,8 @@ public class OrderService {
                             item.getProductName(),
                             item.getQuantity(),
                             item.getProductPrice(),
-                            item.getSubtotal()
+                            item.getSubtotal(),
+                            item.getProduct().getCategory()
                     ))
                     .collect(Collectors.toList());
             
@@ -432,15 +498,16 @@ public class OrderService {
                     order.getCreatedAt()
             );
             
-            kafkaProducerService.sendOrderCreatedEvent(event);
+            publishAfterCommit("OrderCreatedEvent", order.getId(),
+                    () -> kafkaProducerService.sendOrderCreatedEvent(event));
         } catch (Exception e) {
             // Log error but don't fail the transaction
-            System.err.println("Failed to send OrderCreatedEvent: " + e.getMessage());
+            logger.error("Failed to send OrderCreatedEvent: orderId={}", order.getId(), e);
         }
     }
     
     /**
-     * Send order status changed event to Kafka
+     * Send order status changed event to Kafka once the transaction commits
      */
     private void sendOrderStatusChangedEvent(Order order, OrderStatus oldStatus) {
         try {
@@ -453,99 +520,54 @@ public class OrderService {
                     order.getUpdatedAt() != null ? order.getUpdatedAt() : LocalDateTime.now()
             );
             
-            kafkaProducerService.sendOrderStatusChangedEvent(event);
+            publishAfterCommit("OrderStatusChangedEvent", order.getId(),
+                    () -> kafkaProducerService.sendOrderStatusChangedEvent(event));
         } catch (Exception e) {
             // Log error but don't fail the transaction
-            System.err.println("Failed to send OrderStatusChangedEvent: " + e.getMessage());
+            logger.error("Failed to send OrderStatusChangedEvent: orderId={}", order.getId(), e);
         }
     }
     
     /**
-     * Send inventory updated events to Kafka for all items in the order
-     * @param order The order containing items
-     * @param reason The reason for inventory update (ORDER_CREATED, ORDER_CANCELLED, ORDER_UPDATED)
-     * @param oldStockMap Map of productId -> old stock value (before modification)
+     * Send one inventory changed event to Kafka carrying all line deltas of the order,
+     * once the transaction commits
+     * @param order The order the stock changes belong to
+     * @param reason The reason for inventory update (ORDER_CREATED, ORDER_UPDATED, ORDER_CANCELLED, ORDER_DELETED)
+     * @param stockChanges Per-line old stock, new stock and quantity change
      */
-    private void sendInventoryUpdatedEvents(Order order, String reason, java.util.Map<Long, Integer> oldStockMap) {
+    private void sendOrderInventoryChangedEvent(Order order, String reason, List<StockChange> stockChanges) {
+        if (stockChanges.isEmpty()) {
+            return;
+        }
         try {
-            for (OrderItem item : order.getItems()) {
-                Product product = item.getProduct();
-                Integer oldStock = oldStockMap.getOrDefault(product.getId(), product.getStock());
-                Integer newStock = product.getStock();
-                
-                // Calculate quantity change based on reason
-                Integer quantityChange;
-                if ("ORDER_CANCELLED".equals(reason)) {
-                    // For cancellation, stock was restored, so change is positive
-                    quantityChange = item.getQuantity();
-                } else {
-                    // For creation/update, stock was deducted, so change is negative
-                    quantityChange = -item.getQuantity();
-                }
-                
-                InventoryUpdatedEvent event = new InventoryUpdatedEvent(
-                        product.getId(),
-                        product.getName(),
-                        oldStock,
-                        newStock,
-                        quantityChange,
-                        reason,
-                        order.getId(),
-                        LocalDateTime.now()
-                );
-                
-                kafkaProducerService.sendInventoryUpdatedEvent(event);
-            }
+            OrderInventoryChangedEvent event = new OrderInventoryChangedEvent(
+                    order.getId(),
+                    reason,
+                    stockChanges,
+                    LocalDateTime.now()
+            );
+            
+            publishAfterCommit("OrderInventoryChangedEvent", order.getId(),
+                    () -> kafkaProducerService.sendOrderInventoryChangedEvent(event));
         } catch (Exception e) {
             // Log error but don't fail the transaction
-            System.err.println("Failed to send InventoryUpdatedEvent: " + e.getMessage());
+            logger.error("Failed to send OrderInventoryChangedEvent: orderId={}", order.getId(), e);
         }
     }
     
     /**
-     * Send inventory updated events for items that were restored (for order updates)
-     * This handles the case where old items are removed from an order
-     * @param order The order (items may have been cleared)
-     * @param oldStockMap Map of productId -> stock value before restore (the low value)
-     * @param restoredQuantities Map of productId -> quantity that was restored
+     * Run a send after the transaction commits; a rolled-back transaction publishes nothing
+     * The events carry stock versions, and InventoryStateStore drops a version it has seen,
+     * so a version published by a rollback would hide the next committed change
      */
-    private void sendInventoryUpdatedEventsForRestoredItems(Order order, java.util.Map<Long, Integer> oldStockMap, java.util.Map<Long, Integer> restoredQuantities) {
-        try {
-            for (java.util.Map.Entry<Long, Integer> entry : oldStockMap.entrySet()) {
-                Long productId = entry.getKey();
-                Integer oldStock = entry.getValue(); // Stock before restore (low value)
-                Integer restoredQuantity = restoredQuantities.getOrDefault(productId, 0);
-                
-                if (restoredQuantity == 0) {
-                    continue; // Skip if no quantity was restored
-                }
-                
-                Product product = productRepository.findById(productId)
-                        .orElse(null);
-                if (product == null) {
-                    continue;
-                }
-                
-                Integer newStock = product.getStock(); // Stock after restore (high value)
-                
-                InventoryUpdatedEvent event = new InventoryUpdatedEvent(
-                        product.getId(),
-                        product.getName(),
-                        oldStock,
-                        newStock,
-                        restoredQuantity, // Positive quantity change (stock was restored)
-                        "ORDER_UPDATED_ITEM_REMOVED",
-                        order.getId(),
-                        LocalDateTime.now()
-                );
-                
-                kafkaProducerService.sendInventoryUpdatedEvent(event);
+    private void publishAfterCommit(String eventName, Long orderId, Runnable send) {
+        TransactionUtil.afterCommit(() -> {
+            try {
+                send.run();
+            } catch (Exception e) {
+                // The order is committed either way
+                logger.error("Failed to send {}: orderId={}", eventName, orderId, e);
             }
-        } catch (Exception e) {
-            // Log error but don't fail the transaction
-            System.err.println("Failed to send InventoryUpdatedEvent for restored items: " + e.getMessage());
-        }
+        });
     }
 }
-
-
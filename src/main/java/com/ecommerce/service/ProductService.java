@@ -2,18 +2,25 @@ package com.ecommerce.service;
 
 import com.ecommerce.dto.ProductRequest;
 import com.ecommerce.dto.ProductResponse;
+import com.ecommerce.dto.StockLevelResponse;
+import com.ecommerce.event.InventoryUpdatedEvent;
 import com.ecommerce.model.Product;
 import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.util.TransactionUtil;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -21,12 +28,28 @@ import java.util.stream.Collectors;
  * Business logic for product management with Redis caching
  */
 @Service
+@Timed(value = "service.method", description = "Service method latency", histogram = true)
 @Transactional
 public class ProductService {
     
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private ProductStockCache productStockCache;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private NegativeLookupCache negativeLookupCache;
+    
+    @Autowired
+    private InventoryStateStore inventoryStateStore;
+    
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+    
     /**
      * Convert Product entity to ProductResponse DTO
      */
@@ -83,13 +106,32 @@ public class ProductService {
     
     /**
      * Get product by ID
-     * Cached for 15 minutes
+     * The document is cached for 15 minutes; stock is overlaid from the live stock counters
+     * Unknown ids are rejected by the known-id filter or a short-lived tombstone
      */
-    @Cacheable(value = "product", key = "#id")
     public ProductResponse getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
-        return convertToResponse(product);
+        if (negativeLookupCache.isImpossible(NegativeLookupCache.PRODUCT, id)) {
+            throw new RuntimeException("Product not found with id: " + id);
+        }
+        
+        Cache productCache = Objects.requireNonNull(cacheManager.getCache("product"));
+        ProductResponse cached = productCache.get(id, ProductResponse.class);
+        if (cached != null) {
+            return productStockCache.applyTo(cached);
+        }
+        
+        if (negativeLookupCache.hasTombstone(NegativeLookupCache.PRODUCT, id)) {
+            throw new RuntimeException("Product not found with id: " + id);
+        }
+        Product product = productRepository.findById(id).orElse(null);
+        if (product == null) {
+            negativeLookupCache.recordMissing(NegativeLookupCache.PRODUCT, id);
+            throw new RuntimeException("Product not found with id: " + id);
+        }
+        ProductResponse response = convertToResponse(product);
+        productCache.put(id, response);
+        productStockCache.seed(product.getId(), product.getStock(), product.getStockVersion());
+        return response;
     }
     
     /**
@@ -143,19 +185,23 @@ public class ProductService {
         product.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
         
         product = productRepository.save(product);
+        productStockCache.updateStock(List.of(product));
+        negativeLookupCache.recordCreated(NegativeLookupCache.PRODUCT, product.getId());
+        sendInventoryUpdatedEvent(product, null, product.getStock(), "PRODUCT_CREATED");
         return convertToResponse(product);
     }
     
     /**
      * Update an existing product
-     * Evicts both product and products cache
+     * Evicts both product and products cache; the row is locked and re-read so the
+     * write-back never carries a stale cached stock
      */
     @Caching(evict = {
         @CacheEvict(value = "product", key = "#id"),
         @CacheEvict(value = "products", allEntries = true)
     })
     public ProductResponse updateProduct(Long id, ProductRequest request) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         
         // Check if SKU is being changed and if new SKU already exists
@@ -166,6 +212,7 @@ public class ProductService {
             }
         }
         
+        Integer oldStock = product.getStock();
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
@@ -179,8 +226,15 @@ public class ProductService {
         if (request.getIsActive() != null) {
             product.setIsActive(request.getIsActive());
         }
+        if (!Objects.equals(oldStock, product.getStock())) {
+            product.setStockVersion(product.getStockVersion() + 1);
+        }
         
         product = productRepository.save(product);
+        productStockCache.updateStock(List.of(product));
+        if (!Objects.equals(oldStock, product.getStock())) {
+            sendInventoryUpdatedEvent(product, oldStock, product.getStock(), "MANUAL_UPDATE");
+        }
         return convertToResponse(product);
     }
     
@@ -193,10 +247,14 @@ public class ProductService {
         @CacheEvict(value = "products", allEntries = true)
     })
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new RuntimeException("Product not found with id: " + id);
-        }
-        productRepository.deleteById(id);
+        Product product = productRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        productRepository.delete(product);
+        productStockCache.evict(id);
+        // Versioned after the last stock change so the removal is not overtaken by an older update
+        product.setStockVersion(product.getStockVersion() + 1);
+        // A null new stock removes the product from the inventory views
+        sendInventoryUpdatedEvent(product, product.getStock(), null, "PRODUCT_DELETED");
     }
     
     /**
@@ -208,11 +266,57 @@ public class ProductService {
         @CacheEvict(value = "products", allEntries = true)
     })
     public ProductResponse deactivateProduct(Long id) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setIsActive(false);
         product = productRepository.save(product);
         return convertToResponse(product);
     }
+    
+    /**
+     * Get the current stock of a product
+     * Served from the in-process inventory view, falling back to the stock counters
+     */
+    public StockLevelResponse getStockLevel(Long id) {
+        Integer stock = inventoryStateStore.isReady() ? inventoryStateStore.getStock(id) : null;
+        if (stock == null) {
+            stock = getProductById(id).getStock();
+        }
+        return new StockLevelResponse(id, stock);
+    }
+    
+    /**
+     * Get products whose stock is below the threshold, lowest first
+     * Served from the in-process inventory view; the database is only scanned until the view is ready
+     */
+    @Transactional(readOnly = true)
+    public List<StockLevelResponse> getLowStockProducts(Integer threshold, int limit) {
+        int effectiveThreshold = threshold != null ? threshold : inventoryStateStore.getLowStockThreshold();
+        if (inventoryStateStore.isReady()) {
+            return inventoryStateStore.findLowStock(effectiveThreshold, limit);
+        }
+        return productRepository.findLowStockProducts(effectiveThreshold).stream()
+                .map(product -> new StockLevelResponse(product.getId(), product.getStock()))
+                .sorted((a, b) -> Integer.compare(a.getStock(), b.getStock()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Publish a stock change made outside of orders once the transaction commits
+     */
+    private void sendInventoryUpdatedEvent(Product product, Integer oldStock, Integer newStock, String reason) {
+        InventoryUpdatedEvent event = new InventoryUpdatedEvent(
+                product.getId(),
+                product.getName(),
+                oldStock,
+                newStock,
+                (newStock != null ? newStock : 0) - (oldStock != null ? oldStock : 0),
+                reason,
+                null,
+                LocalDateTime.now()
+        );
+        event.setStockVersion(product.getStockVersion());
+        TransactionUtil.afterCommit(() -> kafkaProducerService.sendInventoryUpdatedEvent(event));
+    }
 }
-
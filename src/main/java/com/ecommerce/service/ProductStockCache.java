@@ -0,0 +1,134 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductResponse;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.util.RedisUtil;
+import com.ecommerce.util.TransactionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Product Stock Cache
+ * Keeps live stock counters in a Redis hash (product id -> stock) so cached
+ * product documents are not evicted every time an order changes stock.
+ * Each counter is written together with the product's stock version and never replaced by
+ * an older one, so concurrent after-commit writes may land in any order
+ */
+@Service
+public class ProductStockCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductStockCache.class);
+
+    public static final String STOCK_HASH_KEY = "product:stock";
+    public static final String VERSION_HASH_KEY = "product:stock:version";
+
+    // KEYS: stock hash, version hash; ARGV: product id, stock, stock version per product.
+    // Equal versions are written again so seeds and retries are idempotent
+    private static final String UPDATE_SCRIPT =
+        "for i = 1, #ARGV, 3 do " +
+        "  local current = tonumber(redis.call('HGET', KEYS[2], ARGV[i])) " +
+        "  if not current or tonumber(ARGV[i + 2]) >= current then " +
+        "    redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) " +
+        "    redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 2]) " +
+        "  end " +
+        "end " +
+        "return 0";
+
+    @Autowired
+    private RedisUtil redisUtil;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    /**
+     * Overlay the live stock counter onto a (possibly cached) product document
+     * Falls back to a stock-only query when the counter is missing
+     */
+    public ProductResponse applyTo(ProductResponse response) {
+        Long productId = response.getId();
+        try {
+            Object stock = redisUtil.hGet(STOCK_HASH_KEY, String.valueOf(productId));
+            if (stock instanceof Number) {
+                response.setStock(((Number) stock).intValue());
+                return response;
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to read stock counter: productId={}", productId, e);
+        }
+        for (Object[] row : productRepository.findStockAndVersionById(productId)) {
+            response.setStock((Integer) row[0]);
+            seed(productId, (Integer) row[0], (Long) row[1]);
+        }
+        return response;
+    }
+
+    /**
+     * Seed the counter for a product loaded from the database (or the entity cache)
+     * Never overwrites a counter of a newer stock version
+     */
+    public void seed(Long productId, Integer stock, Long stockVersion) {
+        try {
+            write(List.of(productId, stock, stockVersion));
+        } catch (Exception e) {
+            logger.warn("Failed to seed stock counter: productId={}", productId, e);
+        }
+    }
+
+    /**
+     * Record the products' current stock
+     * Written after the surrounding transaction commits so rolled back orders never leak
+     */
+    public void updateStock(Collection<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        // Captured now: the entities may change again before the transaction commits
+        List<Object> args = new ArrayList<>(products.size() * 3);
+        for (Product product : products) {
+            args.add(product.getId());
+            args.add(product.getStock());
+            args.add(product.getStockVersion());
+        }
+        TransactionUtil.afterCommit(() -> {
+            try {
+                write(args);
+            } catch (Exception e) {
+                logger.warn("Failed to update stock counters: products={}", products.size(), e);
+                // Drop the counters so readers fall back to the database instead of stale values
+                List<Object> fields = new ArrayList<>();
+                for (int i = 0; i < args.size(); i += 3) {
+                    fields.add(String.valueOf(args.get(i)));
+                }
+                remove(fields.toArray());
+            }
+        });
+    }
+
+    /**
+     * Remove the counter of a deleted product
+     */
+    public void evict(Long productId) {
+        TransactionUtil.afterCommit(() -> remove(String.valueOf(productId)));
+    }
+
+    private void write(List<Object> args) {
+        redisUtil.executeScript(UPDATE_SCRIPT, Long.class, List.of(STOCK_HASH_KEY, VERSION_HASH_KEY), args.toArray());
+    }
+
+    private void remove(Object... fields) {
+        try {
+            redisUtil.hDelete(STOCK_HASH_KEY, fields);
+            redisUtil.hDelete(VERSION_HASH_KEY, fields);
+        } catch (Exception e) {
+            logger.warn("Failed to remove stock counters: fields={}", Arrays.toString(fields), e);
+        }
+    }
+}
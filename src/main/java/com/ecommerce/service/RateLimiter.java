@@ -0,0 +1,192 @@
+package com.ecommerce.service;
+
+import com.ecommerce.util.LocalCacheMetrics;
+import com.ecommerce.util.RedisUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate Limiter
+ * Token buckets shared by all nodes through Redis, consumed locally: each node decides
+ * from its own copy of a bucket and reports what it consumed in one Lua script call per
+ * sync interval, taking the global token count back in exchange
+ * Limits are therefore approximate: across nodes a bucket can be overdrawn by what each
+ * node allowed within one interval, and the debt is paid back before further requests pass
+ */
+@Service
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final String KEY_PREFIX = "ratelimit:";
+    private static final int SYNC_BATCH_SIZE = 500;
+
+    // KEYS: buckets; ARGV: per bucket capacity, refill per ms, consumed. Returns the tokens left
+    // per bucket; debt is bounded by one capacity so a burst cannot lock a client out for long
+    private static final String SYNC_SCRIPT =
+        "local time = redis.call('TIME') " +
+        "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+        "local result = {} " +
+        "for i, key in ipairs(KEYS) do " +
+        "  local capacity = tonumber(ARGV[i * 3 - 2]) " +
+        "  local refillPerMs = tonumber(ARGV[i * 3 - 1]) " +
+        "  local consumed = tonumber(ARGV[i * 3]) " +
+        "  local state = redis.call('HMGET', key, 'tokens', 'ts') " +
+        "  local tokens = tonumber(state[1]) or capacity " +
+        "  local ts = tonumber(state[2]) or now " +
+        "  tokens = math.min(capacity, tokens + math.max(0, now - ts) * refillPerMs) " +
+        "  tokens = math.max(-capacity, tokens - consumed) " +
+        "  redis.call('HSET', key, 'tokens', tostring(tokens), 'ts', tostring(now)) " +
+        "  redis.call('PEXPIRE', key, math.ceil((capacity - tokens) / refillPerMs) + 1000) " +
+        "  result[i] = tostring(tokens) " +
+        "end " +
+        "return result";
+
+    @Value("${rate-limit.max-tracked-keys:100000}")
+    private long maxTrackedKeys;
+
+    @Autowired
+    private RedisUtil redisUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, Bucket> buckets;
+
+    @PostConstruct
+    public void init() {
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .recordStats()
+                .build();
+        LocalCacheMetrics.monitor(meterRegistry, buckets, "rate-limit.buckets");
+    }
+
+    /**
+     * Take one token from a bucket (no I/O)
+     * Returns 0 when the request may pass, otherwise the milliseconds until a token is available
+     */
+    public long tryAcquire(String key, int capacity, double refillPerSecond) {
+        Bucket bucket = buckets.get(key, k -> new Bucket(KEY_PREFIX + k, capacity, refillPerSecond));
+        return bucket.tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * Report local consumption to Redis and adopt the global token counts
+     * Fails open: without Redis every node keeps limiting on its own
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.sync-interval-ms:500}")
+    public void sync() {
+        List<Bucket> dirty = new ArrayList<>();
+        for (Bucket bucket : buckets.asMap().values()) {
+            if (bucket.hasUnsynced()) {
+                dirty.add(bucket);
+            }
+        }
+        for (int from = 0; from < dirty.size(); from += SYNC_BATCH_SIZE) {
+            sync(dirty.subList(from, Math.min(dirty.size(), from + SYNC_BATCH_SIZE)));
+        }
+    }
+
+    private void sync(List<Bucket> batch) {
+        List<String> keys = new ArrayList<>(batch.size());
+        Object[] args = new Object[batch.size() * 3];
+        long[] consumed = new long[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Bucket bucket = batch.get(i);
+            consumed[i] = bucket.drainUnsynced();
+            keys.add(bucket.redisKey);
+            args[i * 3] = bucket.capacity;
+            args[i * 3 + 1] = bucket.refillPerMillis;
+            args[i * 3 + 2] = consumed[i];
+        }
+        try {
+            List<?> tokens = redisUtil.executeScript(SYNC_SCRIPT, List.class, keys, args);
+            long now = System.nanoTime();
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).applyGlobal(Double.parseDouble((String) tokens.get(i)), now);
+            }
+        } catch (Exception e) {
+            // Put the consumption back so it is reported with the next sync
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).restoreUnsynced(consumed[i]);
+            }
+            logger.warn("Failed to sync rate limit buckets with Redis: buckets={}", batch.size(), e);
+        }
+    }
+
+    /**
+     * Local copy of one bucket
+     */
+    private static final class Bucket {
+
+        private final String redisKey;
+        private final int capacity;
+        private final double refillPerMillis;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefill;
+        // Tokens taken since the last report to Redis
+        private long unsynced;
+
+        private Bucket(String redisKey, int capacity, double refillPerSecond) {
+            this.redisKey = redisKey;
+            this.capacity = capacity;
+            this.refillPerMillis = refillPerSecond / 1_000d;
+            this.refillPerNano = refillPerSecond / 1_000_000_000d;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized long tryAcquire(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                unsynced++;
+                return 0;
+            }
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis((long) Math.ceil((1 - tokens) / refillPerNano)));
+        }
+
+        synchronized boolean hasUnsynced() {
+            return unsynced > 0;
+        }
+
+        synchronized long drainUnsynced() {
+            long drained = unsynced;
+            unsynced = 0;
+            return drained;
+        }
+
+        synchronized void restoreUnsynced(long drained) {
+            unsynced += drained;
+        }
+
+        /**
+         * Adopt the global count; tokens taken while the sync was in flight are still unsynced
+         */
+        synchronized void applyGlobal(double globalTokens, long now) {
+            tokens = Math.min(capacity, globalTokens - unsynced);
+            lastRefill = now;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
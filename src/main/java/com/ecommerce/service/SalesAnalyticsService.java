@@ -0,0 +1,378 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.SalesStatsResponse;
+import com.ecommerce.dto.SalesWindowResponse;
+import com.ecommerce.event.OrderCreatedEvent;
+import com.ecommerce.util.AssignedTopicConsumer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sales Analytics Service
+ * Streams order-created events into per-minute ring buffers of revenue, order count and units
+ * (overall, per product and per category) so sliding and tumbling windows are answered
+ * from memory instead of GROUP BY queries against the orders table.
+ * Every node reads all partitions without joining a consumer group (see AssignedTopicConsumer),
+ * so any node answers for all orders and no group is left behind when a node goes away
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    public static final String DIMENSION_TOTAL = "total";
+    public static final String DIMENSION_PRODUCT = "product";
+    public static final String DIMENSION_CATEGORY = "category";
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final String UNCATEGORIZED = "uncategorized";
+
+    @Value("${analytics.sales.retention-minutes:180}")
+    private int retentionMinutes;
+
+    @Value("${analytics.sales.max-tracked-keys:2000}")
+    private int maxTrackedKeys;
+
+    @Value("${analytics.sales.max-recorded-events:200000}")
+    private long maxRecordedEvents;
+
+    @Autowired
+    private ConsumerFactory<String, Object> consumerFactory;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private MinuteSeries total;
+    private final Map<Long, MinuteSeries> products = new ConcurrentHashMap<>();
+    private final Map<String, MinuteSeries> categories = new ConcurrentHashMap<>();
+    private final AtomicBoolean keyLimitLogged = new AtomicBoolean();
+    // Minute of the last sweep for series that have aged out, at most one sweep per minute
+    private volatile long lastSweepMinute = Long.MIN_VALUE;
+    // Ids of recorded orders: the shared deduplicator cannot be used, every node sees every event
+    private Cache<String, Boolean> recordedEventIds;
+    private AssignedTopicConsumer consumer;
+
+    @PostConstruct
+    public void init() {
+        if (retentionMinutes <= 0 || maxTrackedKeys <= 0) {
+            throw new IllegalStateException("Sales analytics retention and key limit must be positive");
+        }
+        total = new MinuteSeries(retentionMinutes);
+        recordedEventIds = Caffeine.newBuilder()
+                .maximumSize(maxRecordedEvents)
+                .expireAfterWrite(Duration.ofMinutes(retentionMinutes))
+                .build();
+        consumer = new AssignedTopicConsumer("sales-analytics", consumerFactory,
+                List.of(KafkaProducerService.TOPIC_ORDERS), this::position, this::consumeOrderCreatedEvents);
+        consumer.start();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (consumer != null) {
+            consumer.close();
+        }
+    }
+
+    /**
+     * Start newly assigned partitions at the retention boundary instead of the whole topic history
+     */
+    private void position(Consumer<String, Object> kafkaConsumer, List<TopicPartition> partitions) {
+        AssignedTopicConsumer.seekToTimestamp(kafkaConsumer, partitions,
+                System.currentTimeMillis() - retentionMinutes * MILLIS_PER_MINUTE);
+    }
+
+    /**
+     * Fold order-created events into the windows; events published twice are recorded once
+     */
+    private void consumeOrderCreatedEvents(List<ConsumerRecord<String, Object>> records) {
+        for (ConsumerRecord<String, Object> record : records) {
+            if (!(record.value() instanceof OrderCreatedEvent)) {
+                logger.warn("Skipping unexpected order record: partition={}, offset={}",
+                           record.partition(), record.offset());
+                continue;
+            }
+            OrderCreatedEvent event = (OrderCreatedEvent) record.value();
+            if (event.getEventId() != null
+                    && recordedEventIds.asMap().putIfAbsent(event.getEventId(), Boolean.TRUE) != null) {
+                continue;
+            }
+            record(event);
+        }
+    }
+
+    /**
+     * Fold one order into the windows of its minute
+     * Events older than the retention are dropped; events stamped in the future count as now
+     */
+    public void record(OrderCreatedEvent event) {
+        long nowMinute = currentMinute();
+        long minute = event.getCreatedAt() != null
+                ? Math.min(toMinute(event.getCreatedAt()), nowMinute)
+                : nowMinute;
+        if (minute <= nowMinute - retentionMinutes) {
+            logger.debug("Order outside analytics retention: orderId={}", event.getOrderId());
+            return;
+        }
+
+        // Collapse the items first so an order counts once per product and category
+        Map<Long, long[]> byProduct = new HashMap<>();
+        Map<String, long[]> byCategory = new HashMap<>();
+        long orderCents = 0;
+        long orderUnits = 0;
+        if (event.getItems() != null) {
+            for (OrderCreatedEvent.OrderItemEvent item : event.getItems()) {
+                long cents = toCents(item.getSubtotal());
+                long units = item.getQuantity() != null ? item.getQuantity() : 0;
+                orderCents += cents;
+                orderUnits += units;
+                if (item.getProductId() != null) {
+                    accumulate(byProduct.computeIfAbsent(item.getProductId(), k -> new long[2]), cents, units);
+                }
+                String category = item.getCategory() != null ? item.getCategory() : UNCATEGORIZED;
+                accumulate(byCategory.computeIfAbsent(category, k -> new long[2]), cents, units);
+            }
+        }
+        if (event.getTotalAmount() != null) {
+            orderCents = toCents(event.getTotalAmount());
+        }
+
+        total.add(minute, orderCents, 1, orderUnits);
+        for (Map.Entry<Long, long[]> entry : byProduct.entrySet()) {
+            MinuteSeries series = seriesFor(products, entry.getKey());
+            if (series != null) {
+                series.add(minute, entry.getValue()[0], 1, entry.getValue()[1]);
+            }
+        }
+        for (Map.Entry<String, long[]> entry : byCategory.entrySet()) {
+            MinuteSeries series = seriesFor(categories, entry.getKey());
+            if (series != null) {
+                series.add(minute, entry.getValue()[0], 1, entry.getValue()[1]);
+            }
+        }
+    }
+
+    /**
+     * Sliding window over the last windowMinutes (including the current minute),
+     * with the top products and categories by revenue
+     */
+    public SalesStatsResponse getSlidingStats(int windowMinutes, int limit) {
+        checkWindow(windowMinutes);
+        if (limit <= 0) {
+            throw new RuntimeException("limit must be positive");
+        }
+        long to = currentMinute() + 1;
+        long from = to - windowMinutes;
+
+        SalesStatsResponse response = new SalesStatsResponse();
+        response.setWindowMinutes(windowMinutes);
+        response.setTotal(window(DIMENSION_TOTAL, null, total, from, to));
+        response.setTopProducts(top(DIMENSION_PRODUCT, products, from, to, limit));
+        response.setTopCategories(top(DIMENSION_CATEGORY, categories, from, to, limit));
+        return response;
+    }
+
+    /**
+     * Consecutive tumbling windows of windowMinutes, aligned to the epoch, oldest first;
+     * the last window is the one still open
+     */
+    public List<SalesWindowResponse> getTumblingWindows(String dimension, String key, int windowMinutes, int windows) {
+        checkWindow(windowMinutes);
+        if (windows <= 0 || (long) windows * windowMinutes > retentionMinutes) {
+            throw new RuntimeException("windows must be between 1 and " + (retentionMinutes / windowMinutes));
+        }
+        MinuteSeries series = lookup(dimension, key);
+        long currentStart = Math.floorDiv(currentMinute(), windowMinutes) * windowMinutes;
+
+        List<SalesWindowResponse> result = new ArrayList<>(windows);
+        for (int i = windows - 1; i >= 0; i--) {
+            long from = currentStart - (long) i * windowMinutes;
+            result.add(window(dimension, key, series, from, from + windowMinutes));
+        }
+        return result;
+    }
+
+    private MinuteSeries lookup(String dimension, String key) {
+        switch (dimension) {
+            case DIMENSION_TOTAL:
+                return total;
+            case DIMENSION_PRODUCT:
+                try {
+                    return key != null ? products.get(Long.valueOf(key)) : null;
+                } catch (NumberFormatException e) {
+                    throw new RuntimeException("Invalid product id: " + key);
+                }
+            case DIMENSION_CATEGORY:
+                return key != null ? categories.get(key) : null;
+            default:
+                throw new RuntimeException("Unknown dimension: " + dimension);
+        }
+    }
+
+    private <K> List<SalesWindowResponse> top(String dimension, Map<K, MinuteSeries> seriesByKey,
+                                              long from, long to, int limit) {
+        List<SalesWindowResponse> windows = new ArrayList<>();
+        for (Map.Entry<K, MinuteSeries> entry : seriesByKey.entrySet()) {
+            SalesWindowResponse window = window(dimension, String.valueOf(entry.getKey()), entry.getValue(), from, to);
+            if (window.getOrderCount() > 0) {
+                windows.add(window);
+            }
+        }
+        windows.sort(Comparator.comparing(SalesWindowResponse::getRevenue).reversed());
+        return windows.size() > limit ? new ArrayList<>(windows.subList(0, limit)) : windows;
+    }
+
+    private SalesWindowResponse window(String dimension, String key, MinuteSeries series, long from, long to) {
+        long[] sums = new long[3];
+        if (series != null) {
+            series.sum(from, to, sums);
+        }
+        return new SalesWindowResponse(dimension, key, toDateTime(from), toDateTime(to),
+                BigDecimal.valueOf(sums[0], 2), sums[1], sums[2]);
+    }
+
+    /**
+     * Series of a key, created on first use while fewer than maxTrackedKeys keys exist per dimension
+     * When the limit is reached, series whose newest minute has left the retention are evicted first
+     */
+    private <K> MinuteSeries seriesFor(Map<K, MinuteSeries> seriesByKey, K key) {
+        MinuteSeries series = seriesByKey.get(key);
+        if (series != null) {
+            return series;
+        }
+        if (seriesByKey.size() >= maxTrackedKeys) {
+            evictExpiredSeries();
+        }
+        if (seriesByKey.size() >= maxTrackedKeys) {
+            if (keyLimitLogged.compareAndSet(false, true)) {
+                logger.warn("Sales analytics key limit reached ({}), new keys are only counted in totals",
+                           maxTrackedKeys);
+            }
+            return null;
+        }
+        return seriesByKey.computeIfAbsent(key, k -> new MinuteSeries(retentionMinutes));
+    }
+
+    private void evictExpiredSeries() {
+        long nowMinute = currentMinute();
+        if (nowMinute == lastSweepMinute) {
+            return;
+        }
+        lastSweepMinute = nowMinute;
+        long oldestRetained = nowMinute - retentionMinutes + 1;
+        products.values().removeIf(series -> series.latestMinute() < oldestRetained);
+        categories.values().removeIf(series -> series.latestMinute() < oldestRetained);
+    }
+
+    private void checkWindow(int windowMinutes) {
+        if (windowMinutes <= 0 || windowMinutes > retentionMinutes) {
+            throw new RuntimeException("windowMinutes must be between 1 and " + retentionMinutes);
+        }
+    }
+
+    private static void accumulate(long[] sums, long cents, long units) {
+        sums[0] += cents;
+        sums[1] += units;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount != null ? amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue() : 0;
+    }
+
+    private long toMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.atZone(zone).toInstant().toEpochMilli(), MILLIS_PER_MINUTE);
+    }
+
+    private LocalDateTime toDateTime(long minute) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(minute * MILLIS_PER_MINUTE), zone);
+    }
+
+    private static long currentMinute() {
+        return Math.floorDiv(System.currentTimeMillis(), MILLIS_PER_MINUTE);
+    }
+
+    /**
+     * Fixed ring of one-minute buckets; a slot is reset when a newer minute claims it,
+     * so memory stays bounded at retentionMinutes buckets per key
+     */
+    static final class MinuteSeries {
+
+        private final long[] minutes;
+        private final long[] revenueCents;
+        private final int[] orders;
+        private final int[] units;
+        private long latestMinute = Long.MIN_VALUE;
+
+        MinuteSeries(int slots) {
+            minutes = new long[slots];
+            revenueCents = new long[slots];
+            orders = new int[slots];
+            units = new int[slots];
+            Arrays.fill(minutes, Long.MIN_VALUE);
+        }
+
+        synchronized void add(long minute, long cents, int orderCount, long unitCount) {
+            int slot = (int) Math.floorMod(minute, (long) minutes.length);
+            if (minutes[slot] != minute) {
+                if (minutes[slot] > minute) {
+                    // Slot already holds a newer minute: this one has aged out
+                    return;
+                }
+                minutes[slot] = minute;
+                revenueCents[slot] = 0;
+                orders[slot] = 0;
+                units[slot] = 0;
+            }
+            revenueCents[slot] += cents;
+            orders[slot] += orderCount;
+            units[slot] += (int) unitCount;
+            latestMinute = Math.max(latestMinute, minute);
+        }
+
+        /**
+         * Newest minute with data, Long.MIN_VALUE while empty
+         */
+        synchronized long latestMinute() {
+            return latestMinute;
+        }
+
+        /**
+         * Add revenue cents, orders and units of minutes in [from, to) to sums
+         */
+        synchronized void sum(long from, long to, long[] sums) {
+            for (int slot = 0; slot < minutes.length; slot++) {
+                long minute = minutes[slot];
+                if (minute >= from && minute < to) {
+                    sums[0] += revenueCents[slot];
+                    sums[1] += orders[slot];
+                    sums[2] += units[slot];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.ecommerce.service;
+
+import com.ecommerce.util.BloomFilter;
+import com.ecommerce.util.JwtPrincipal;
+import com.ecommerce.util.JwtUtil;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token Revocation Service
+ * Revoked token ids and per-user cutoffs ("every token issued before T") live in Redis
+ * hashes; every node keeps a copy in memory, updated over pub/sub and fully resynced
+ * periodically, so checking a token on the request path needs no network I/O
+ */
+@Service
+public class TokenRevocationService implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    public static final String CHANNEL = "auth:revocations";
+
+    private static final String REVOKED_TOKENS_KEY = "auth:revoked:tokens";
+    private static final String USER_CUTOFFS_KEY = "auth:revoked:users";
+    private static final String TYPE_TOKEN = "token";
+    private static final String TYPE_USER = "user";
+
+    @Value("${auth.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    // jti -> expiry of the revoked token; entries are pruned once the token has expired anyway
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    // username -> tokens issued at or before this instant are revoked
+    private final Map<String, Long> userCutoffs = new ConcurrentHashMap<>();
+    // Answers "not revoked" for almost every token without touching the map
+    private volatile BloomFilter revokedFilter;
+
+    @PostConstruct
+    public void init() {
+        revokedFilter = new BloomFilter(expectedRevocations, 0.001);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * True when the token was revoked on its own or by its user's cutoff (no I/O)
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        Long cutoff = userCutoffs.get(principal.getSubject());
+        if (cutoff != null && principal.getIssuedAtMillis() <= cutoff) {
+            return true;
+        }
+        String tokenId = principal.getTokenId();
+        if (tokenId == null || !revokedFilter.mightContain(tokenId)) {
+            return false;
+        }
+        return revokedTokens.containsKey(tokenId);
+    }
+
+    /**
+     * Revoke one token until it expires
+     */
+    public void revokeToken(JwtPrincipal principal) {
+        if (principal.getTokenId() == null) {
+            // Issued before token ids existed: only a user cutoff can revoke it
+            revokeUser(principal.getSubject());
+            return;
+        }
+        String expiresAt = String.valueOf(principal.getExpiresAtMillis());
+        applyToken(principal.getTokenId(), principal.getExpiresAtMillis());
+        stringRedisTemplate.opsForHash().put(REVOKED_TOKENS_KEY, principal.getTokenId(), expiresAt);
+        stringRedisTemplate.convertAndSend(CHANNEL, TYPE_TOKEN + "|" + principal.getTokenId() + "|" + expiresAt);
+    }
+
+    /**
+     * Revoke every token issued to a user so far
+     * Compared against the token's millisecond issue time; tokens issued before that claim
+     * existed only carry whole seconds, so one issued in the same second as the cutoff is
+     * revoked as well
+     */
+    public void revokeUser(String username) {
+        long cutoff = System.currentTimeMillis();
+        applyUser(username, cutoff);
+        stringRedisTemplate.opsForHash().put(USER_CUTOFFS_KEY, username, String.valueOf(cutoff));
+        stringRedisTemplate.convertAndSend(CHANNEL, TYPE_USER + "|" + username + "|" + cutoff);
+    }
+
+    /**
+     * Apply revocations from other nodes
+     * Message format: type|id|millis (type is token or user)
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int first = body.indexOf('|');
+        int last = body.lastIndexOf('|');
+        if (first <= 0 || last <= first) {
+            logger.warn("Ignoring malformed revocation message: {}", body);
+            return;
+        }
+        try {
+            String type = body.substring(0, first);
+            String id = body.substring(first + 1, last);
+            long millis = Long.parseLong(body.substring(last + 1));
+            if (TYPE_TOKEN.equals(type)) {
+                applyToken(id, millis);
+            } else if (TYPE_USER.equals(type)) {
+                applyUser(id, millis);
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed revocation message: {}", body);
+        }
+    }
+
+    /**
+     * Reload the revocation lists from Redis, dropping entries that no longer matter
+     * Runs at startup and periodically afterwards to repair pub/sub messages missed
+     * while disconnected; on failure the current in-memory state is kept
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${auth.revocation.resync-interval-ms:60000}")
+    public void resync() {
+        long now = System.currentTimeMillis();
+        try {
+            Map<String, Long> tokens = new HashMap<>();
+            List<Object> expiredTokens = new ArrayList<>();
+            stringRedisTemplate.opsForHash().entries(REVOKED_TOKENS_KEY).forEach((tokenId, expiresAt) -> {
+                long millis = Long.parseLong((String) expiresAt);
+                if (millis > now) {
+                    tokens.put((String) tokenId, millis);
+                } else {
+                    expiredTokens.add(tokenId);
+                }
+            });
+
+            // A cutoff outlives every token it covers by at most one token lifetime
+            long oldestRelevantCutoff = now - jwtUtil.getExpirationMillis();
+            Map<String, Long> cutoffs = new HashMap<>();
+            List<Object> expiredCutoffs = new ArrayList<>();
+            stringRedisTemplate.opsForHash().entries(USER_CUTOFFS_KEY).forEach((username, cutoff) -> {
+                long millis = Long.parseLong((String) cutoff);
+                if (millis > oldestRelevantCutoff) {
+                    cutoffs.put((String) username, millis);
+                } else {
+                    expiredCutoffs.add(username);
+                }
+            });
+
+            replace(tokens, cutoffs);
+            if (!expiredTokens.isEmpty()) {
+                stringRedisTemplate.opsForHash().delete(REVOKED_TOKENS_KEY, expiredTokens.toArray());
+            }
+            if (!expiredCutoffs.isEmpty()) {
+                stringRedisTemplate.opsForHash().delete(USER_CUTOFFS_KEY, expiredCutoffs.toArray());
+            }
+            logger.debug("Token revocations resynced: tokens={}, users={}", tokens.size(), cutoffs.size());
+        } catch (Exception e) {
+            logger.warn("Failed to resync token revocations, keeping current state", e);
+        }
+    }
+
+    private synchronized void applyToken(String tokenId, long expiresAtMillis) {
+        revokedTokens.put(tokenId, expiresAtMillis);
+        revokedFilter.put(tokenId);
+    }
+
+    private synchronized void applyUser(String username, long cutoffMillis) {
+        userCutoffs.merge(username, cutoffMillis, Math::max);
+    }
+
+    /**
+     * Swap in the resynced state; revocations applied meanwhile are kept
+     * A fresh filter is built so ids of expired tokens stop costing map lookups
+     */
+    private synchronized void replace(Map<String, Long> tokens, Map<String, Long> cutoffs) {
+        long now = System.currentTimeMillis();
+        revokedTokens.entrySet().removeIf(entry -> entry.getValue() <= now && !tokens.containsKey(entry.getKey()));
+        revokedTokens.putAll(tokens);
+        BloomFilter filter = new BloomFilter(Math.max(expectedRevocations, revokedTokens.size()), 0.001);
+        revokedTokens.keySet().forEach(filter::put);
+        revokedFilter = filter;
+
+        long oldestRelevantCutoff = now - jwtUtil.getExpirationMillis();
+        userCutoffs.entrySet().removeIf(entry -> entry.getValue() <= oldestRelevantCutoff);
+        cutoffs.forEach((username, cutoff) -> userCutoffs.merge(username, cutoff, Math::max));
+    }
+}
@@ -0,0 +1,126 @@
+package com.ecommerce.service;
+
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * User Availability Filter
+ * In-memory Bloom filters of taken usernames and emails, so availability checks for free
+ * names (the common case while a user types) never reach MySQL
+ * Only "maybe taken" answers are confirmed with a query; names registered on another node
+ * since the last rebuild may briefly show as available, registration still enforces uniqueness
+ */
+@Service
+public class UserAvailabilityFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityFilter.class);
+
+    private static final int SCAN_PAGE_SIZE = 10_000;
+
+    @Value("${auth.availability.expected-users:1000000}")
+    private long expectedUsers;
+
+    @Value("${auth.availability.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private volatile Filters current;
+    // Registrations during a rebuild go into both sets, so the swap does not lose them
+    private volatile Filters building;
+
+    /**
+     * Rebuild both filters from the users table
+     * Runs at startup and periodically afterwards to pick up registrations on other nodes
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${auth.availability.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        Filters filters = new Filters(expectedUsers, falsePositiveRate);
+        building = filters;
+        try {
+            long lastId = 0;
+            long count = 0;
+            List<Object[]> page;
+            do {
+                page = userRepository.findIdentitiesAfter(lastId, PageRequest.of(0, SCAN_PAGE_SIZE));
+                for (Object[] row : page) {
+                    filters.usernames.put(normalize((String) row[1]));
+                    filters.emails.put(normalize((String) row[2]));
+                    lastId = (Long) row[0];
+                }
+                count += page.size();
+            } while (page.size() == SCAN_PAGE_SIZE);
+            current = filters;
+            logger.info("User availability filters rebuilt: users={}", count);
+        } catch (Exception e) {
+            logger.warn("Failed to rebuild user availability filters", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Check whether a username is free; queries only when the filter cannot rule it out
+     */
+    public boolean isUsernameAvailable(String username) {
+        Filters filters = current;
+        if (filters != null && !filters.usernames.mightContain(normalize(username))) {
+            return true;
+        }
+        return !userRepository.existsByUsername(username);
+    }
+
+    /**
+     * Check whether an email is free; queries only when the filter cannot rule it out
+     */
+    public boolean isEmailAvailable(String email) {
+        Filters filters = current;
+        if (filters != null && !filters.emails.mightContain(normalize(email))) {
+            return true;
+        }
+        return !userRepository.existsByEmail(email);
+    }
+
+    /**
+     * Mark a username and/or email (either may be null) as taken
+     */
+    public void recordRegistered(String username, String email) {
+        for (Filters filters : new Filters[] {current, building}) {
+            if (filters == null) {
+                continue;
+            }
+            if (username != null) {
+                filters.usernames.put(normalize(username));
+            }
+            if (email != null) {
+                filters.emails.put(normalize(email));
+            }
+        }
+    }
+
+    // The unique indexes use MySQL's case-insensitive collation
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Filters {
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        private Filters(long expectedInsertions, double falsePositiveRate) {
+            this.usernames = new BloomFilter(expectedInsertions, falsePositiveRate);
+            this.emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+        }
+    }
+}
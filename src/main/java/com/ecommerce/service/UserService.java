@@ -0,0 +1,191 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.UserResponse;
+import com.ecommerce.dto.UserUpdateRequest;
+import com.ecommerce.model.User;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.util.RedisUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * User Service
+ * Read access to user profiles through the "user" (single) and "users" (pages) Redis caches
+ * Profiles are loaded with projection queries that never select the password hash
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+
+    // Keys written by the cache manager for the "user" cache (default "name::" prefix)
+    private static final String USER_CACHE_PREFIX = "user::";
+    // Same TTL as the "user" cache in RedisConfig
+    private static final long USER_CACHE_TTL_MINUTES = 60;
+
+    public static final int MAX_BATCH_SIZE = 100;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RedisUtil redisUtil;
+
+    @Autowired
+    private UserAvailabilityFilter userAvailabilityFilter;
+
+    /**
+     * Get user profile by ID
+     */
+    @Cacheable(value = "user", key = "#id")
+    public UserResponse getUserById(Long id) {
+        return userRepository.findResponseById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+    }
+
+    /**
+     * ID of the user with the given username, or null when there is none
+     * Resolved through the natural-id cache
+     */
+    public Long getUserIdByUsername(String username) {
+        return userRepository.findByUsername(username).map(User::getId).orElse(null);
+    }
+
+    /**
+     * Get several user profiles, in the order of the requested ids; unknown ids are skipped
+     * Cached profiles come from one MGET, the rest from one projection query and are
+     * written back to the cache
+     */
+    public List<UserResponse> getUsersByIds(List<Long> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("At most " + MAX_BATCH_SIZE + " ids per request");
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, UserResponse> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        List<Object> cached = readCached(distinctIds);
+        for (int i = 0; i < distinctIds.size(); i++) {
+            Object value = cached != null ? cached.get(i) : null;
+            if (value instanceof UserResponse user) {
+                found.put(distinctIds.get(i), user);
+            } else {
+                missing.add(distinctIds.get(i));
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, UserResponse> loaded = new HashMap<>();
+            for (UserResponse user : userRepository.findResponsesByIdIn(missing)) {
+                found.put(user.getId(), user);
+                loaded.put(USER_CACHE_PREFIX + user.getId(), user);
+            }
+            writeCached(loaded);
+        }
+
+        List<UserResponse> users = new ArrayList<>(distinctIds.size());
+        for (Long id : distinctIds) {
+            UserResponse user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Get a page of user profiles, ordered by ID
+     */
+    @Cacheable(value = "users", key = "#page + ':' + #size")
+    public List<UserResponse> getUsers(int page, int size) {
+        // ArrayList so the cached value deserializes (page content is an unmodifiable view)
+        return new ArrayList<>(userRepository.findAllResponses(PageRequest.of(page, size, Sort.by("id")))
+                .getContent());
+    }
+
+    /**
+     * Update a user's profile
+     * Evicts the user's cached profile and the cached pages
+     */
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(value = "user", key = "#id"),
+        @CacheEvict(value = "users", allEntries = true)
+    })
+    public UserResponse updateProfile(Long id, UserUpdateRequest request) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+
+        if (request.getEmail() != null) {
+            user.setEmail(request.getEmail());
+        }
+        if (request.getFirstName() != null) {
+            user.setFirstName(request.getFirstName());
+        }
+        if (request.getLastName() != null) {
+            user.setLastName(request.getLastName());
+        }
+        if (request.getPhoneNumber() != null) {
+            user.setPhoneNumber(request.getPhoneNumber());
+        }
+
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Email already exists");
+        }
+        userAvailabilityFilter.recordRegistered(null, user.getEmail());
+
+        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(),
+                user.getLastName(), user.getPhoneNumber(), user.getRole(), user.getIsActive(),
+                user.getCreatedAt(), user.getUpdatedAt());
+    }
+
+    /**
+     * Drop the cached pages after a user was added
+     */
+    @CacheEvict(value = "users", allEntries = true)
+    public void evictUserPages() {
+    }
+
+    private List<Object> readCached(List<Long> ids) {
+        List<String> keys = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            keys.add(USER_CACHE_PREFIX + id);
+        }
+        try {
+            return redisUtil.multiGet(keys);
+        } catch (Exception e) {
+            logger.warn("Failed to read cached users, loading from database: ids={}", ids.size(), e);
+            return null;
+        }
+    }
+
+    private void writeCached(Map<String, UserResponse> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            redisUtil.multiSet(users, USER_CACHE_TTL_MINUTES, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            logger.warn("Failed to cache users: count={}", users.size(), e);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.ecommerce.util;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assigned Topic Consumer
+ * Reads every partition of some topics on its own thread, for per-node views that must see all
+ * events. Partitions are assigned rather than subscribed and no offsets are committed, so there
+ * is no rebalance and no consumer group is left behind on the broker; the owner positions each
+ * partition when it is first assigned, and partitions added later are picked up periodically
+ */
+public final class AssignedTopicConsumer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssignedTopicConsumer.class);
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+    private static final long PARTITION_REFRESH_MS = 60_000;
+    private static final long ERROR_BACKOFF_MS = 1_000;
+    private static final long CLOSE_TIMEOUT_MS = 10_000;
+
+    private final String name;
+    private final List<String> topics;
+    private final Positioner positioner;
+    private final RecordsHandler handler;
+    private final Consumer<String, Object> consumer;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public AssignedTopicConsumer(String name, ConsumerFactory<String, Object> consumerFactory, List<String> topics,
+                                 Positioner positioner, RecordsHandler handler) {
+        this.name = name;
+        this.topics = List.copyOf(topics);
+        this.positioner = positioner;
+        this.handler = handler;
+        this.consumer = consumerFactory.createConsumer(null, name, null);
+        this.thread = new Thread(this::run, name + "-consumer");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Stop polling and close the consumer, waiting for the batch in progress
+     */
+    @Override
+    public void close() {
+        running = false;
+        consumer.wakeup();
+        try {
+            thread.join(CLOSE_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Seek partitions to the first record at or after a timestamp, or to their end when there is none
+     */
+    public static void seekToTimestamp(Consumer<?, ?> consumer, List<TopicPartition> partitions, long timestamp) {
+        Map<TopicPartition, Long> timestamps = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            timestamps.put(partition, timestamp);
+        }
+        List<TopicPartition> past = new ArrayList<>();
+        consumer.offsetsForTimes(timestamps).forEach((partition, offset) -> {
+            if (offset != null) {
+                consumer.seek(partition, offset.offset());
+            } else {
+                past.add(partition);
+            }
+        });
+        if (!past.isEmpty()) {
+            consumer.seekToEnd(past);
+        }
+    }
+
+    private void run() {
+        long nextRefresh = 0;
+        try {
+            while (running) {
+                try {
+                    if (System.currentTimeMillis() >= nextRefresh) {
+                        assignNewPartitions();
+                        nextRefresh = System.currentTimeMillis() + PARTITION_REFRESH_MS;
+                    }
+                    if (consumer.assignment().isEmpty()) {
+                        // Topics not created yet
+                        Thread.sleep(POLL_TIMEOUT.toMillis());
+                        continue;
+                    }
+                    ConsumerRecords<String, Object> records = consumer.poll(POLL_TIMEOUT);
+                    if (!records.isEmpty()) {
+                        List<ConsumerRecord<String, Object>> batch = new ArrayList<>(records.count());
+                        records.forEach(batch::add);
+                        handler.handle(batch);
+                    }
+                } catch (WakeupException e) {
+                    // close(): the loop condition ends the thread
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    // The batch is not polled again: the views skip what they cannot apply
+                    logger.error("{} consumer failed, continuing after {} ms", name, ERROR_BACKOFF_MS, e);
+                    Thread.sleep(ERROR_BACKOFF_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private void assignNewPartitions() {
+        Set<TopicPartition> assigned = consumer.assignment();
+        List<TopicPartition> all = new ArrayList<>(assigned);
+        List<TopicPartition> added = new ArrayList<>();
+        for (String topic : topics) {
+            List<PartitionInfo> infos = consumer.partitionsFor(topic);
+            if (infos == null) {
+                continue;
+            }
+            for (PartitionInfo info : infos) {
+                TopicPartition partition = new TopicPartition(info.topic(), info.partition());
+                if (!assigned.contains(partition)) {
+                    all.add(partition);
+                    added.add(partition);
+                }
+            }
+        }
+        if (!added.isEmpty()) {
+            consumer.assign(all);
+            positioner.position(consumer, added);
+            logger.info("{} consumer assigned partitions: {}", name, added);
+        }
+    }
+
+    /**
+     * Positions newly assigned partitions; runs on the consumer thread
+     */
+    @FunctionalInterface
+    public interface Positioner {
+        void position(Consumer<String, Object> consumer, List<TopicPartition> partitions);
+    }
+
+    /**
+     * Handles one polled batch; runs on the consumer thread
+     */
+    @FunctionalInterface
+    public interface RecordsHandler {
+        void handle(List<ConsumerRecord<String, Object>> records);
+    }
+}
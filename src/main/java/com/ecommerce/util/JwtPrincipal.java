@@ -0,0 +1,52 @@
+package com.ecommerce.util;
+
+import java.util.Date;
+
+/**
+ * JWT Principal
+ * Immutable result of verifying a token once: subject, role, token id and lifetime
+ */
+public final class JwtPrincipal {
+    
+    private final String subject;
+    private final String role;
+    private final String tokenId;
+    private final long issuedAtMillis;
+    private final long expiresAtMillis;
+    
+    public JwtPrincipal(String subject, String role, String tokenId, Date issuedAt, Date expiresAt) {
+        this.subject = subject;
+        this.role = role;
+        this.tokenId = tokenId;
+        // Tokens issued before jti/iat were added count as issued at the epoch
+        this.issuedAtMillis = issuedAt != null ? issuedAt.getTime() : 0L;
+        this.expiresAtMillis = expiresAt.getTime();
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public String getRole() {
+        return role;
+    }
+    
+    /**
+     * The jti claim; null for tokens issued before token ids were introduced
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+    
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+    
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+    
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAtMillis;
+    }
+}
@@ -1,23 +1,40 @@
 package com.ecommerce.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT Utility Class
  * Handles JWT token generation and validation
  */
 @Component
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
+    
+    private static final String ROLE_CLAIM = "role";
+    // iat only has second precision; revocation cutoffs need the exact issue time
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
     
     @Value("${jwt.secret:mySecretKeyForJWTTokenGenerationThatShouldBeAtLeast256BitsLong}")
     private String secret;
@@ -25,48 +42,84 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long expiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
-    }
+    @Value("${jwt.cache.max-size:100000}")
+    private long cacheMaxSize;
     
-    /**
-     * Extract username from token
-     */
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
+    // Built once: deriving the key and parser per call showed up on every request
+    private SecretKey signingKey;
+    private JwtParser parser;
     
-    /**
-     * Extract expiration date from token
-     */
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+    // Verified tokens by SHA-256 digest; each entry expires with its token
+    private Cache<String, JwtPrincipal> verifiedTokens;
     
-    /**
-     * Extract a specific claim from token
-     */
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+                        long remainingMillis = principal.getExpiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, JwtPrincipal principal, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
     }
     
     /**
-     * Extract all claims from token
+     * Expose hit/miss/eviction counts of the verified-token cache
+     * Bound by Spring once the registry is up, so JwtUtil still works without one
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        LocalCacheMetrics.monitor(registry, verifiedTokens, "jwt.verified-tokens");
     }
     
     /**
-     * Check if token is expired
+     * Verify a token once and return its principal
+     * Repeat calls with the same token are answered from the cache without checking the
+     * signature again; throws JwtException when the token is invalid or expired
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public JwtPrincipal verify(String token) {
+        String digest = digest(token);
+        JwtPrincipal cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+        
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new JwtException("Token without subject or expiration");
+        }
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        Date issuedAt = issuedAtMillis != null ? new Date(issuedAtMillis) : claims.getIssuedAt();
+        JwtPrincipal principal = new JwtPrincipal(claims.getSubject(), claims.get(ROLE_CLAIM, String.class),
+                claims.getId(), issuedAt, claims.getExpiration());
+        verifiedTokens.put(digest, principal);
+        return principal;
     }
     
     /**
@@ -74,29 +127,36 @@ public class JwtUtil {
      */
     public String generateToken(String username, String role) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("role", role);
+        claims.put(ROLE_CLAIM, role);
         return createToken(claims, username);
     }
     
+    /**
+     * Token lifetime in milliseconds
+     */
+    public long getExpirationMillis() {
+        return expiration;
+    }
+    
     /**
      * Create JWT token
+     * Each token gets a random id (jti) so it can be revoked on its own
      */
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey)
                 .compact();
     }
     
-    /**
-     * Validate token
-     */
-    public Boolean validateToken(String token, String username) {
-        final String tokenUsername = extractUsername(token);
-        return (tokenUsername.equals(username) && !isTokenExpired(token));
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
     }
 }
-
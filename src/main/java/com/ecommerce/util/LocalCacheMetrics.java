@@ -0,0 +1,23 @@
+package com.ecommerce.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Local Cache Metrics
+ * Publishes hit/miss/eviction counts of an in-process Caffeine cache (built with recordStats())
+ * next to the Redis caches under the same cache.* names; Prometheus rejects meters of one name
+ * with differing tag keys, so the tags mirror the ones Spring puts on the Redis cache meters
+ */
+public final class LocalCacheMetrics {
+
+    private LocalCacheMetrics() {
+    }
+
+    public static void monitor(MeterRegistry registry, Cache<?, ?> cache, String cacheName) {
+        CaffeineCacheMetrics.monitor(registry, cache, cacheName,
+                Tags.of("cache.manager", "caffeine", "name", cacheName));
+    }
+}
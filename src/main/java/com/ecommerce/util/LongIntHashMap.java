@@ -0,0 +1,180 @@
+package com.ecommerce.util;
+
+import java.util.Arrays;
+
+/**
+ * Long-to-Int Hash Map
+ * Open-addressing map over primitive arrays (no boxing, two array slots per entry);
+ * not thread-safe, callers guard access
+ */
+public class LongIntHashMap {
+
+    private static final float LOAD_FACTOR = 0.7f;
+    // Marks a free slot; the key 0 itself is stored outside the arrays
+    private static final long FREE_KEY = 0L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size + (hasFreeKey ? 1 : 0);
+    }
+
+    public boolean containsKey(long key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Value of the key, or missingValue when absent
+     */
+    public int get(long key, int missingValue) {
+        if (key == FREE_KEY) {
+            return hasFreeKey ? freeKeyValue : missingValue;
+        }
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : missingValue;
+    }
+
+    public void put(long key, int value) {
+        if (key == FREE_KEY) {
+            hasFreeKey = true;
+            freeKeyValue = value;
+            return;
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Remove the key; returns false when it was absent
+     */
+    public boolean remove(long key) {
+        if (key == FREE_KEY) {
+            boolean had = hasFreeKey;
+            hasFreeKey = false;
+            return had;
+        }
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        shiftBack(index);
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        size = 0;
+        hasFreeKey = false;
+    }
+
+    public void forEach(LongIntConsumer action) {
+        if (hasFreeKey) {
+            action.accept(FREE_KEY, freeKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        int slot = slot(key);
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Backward-shift deletion: moves later entries of the probe chain into the gap
+     * so lookups never need tombstones
+     */
+    private void shiftBack(int gap) {
+        int current = gap;
+        while (true) {
+            current = (current + 1) & mask;
+            long key = keys[current];
+            if (key == FREE_KEY) {
+                break;
+            }
+            int home = slot(key);
+            boolean homeBetweenGapAndCurrent = gap <= current
+                    ? gap < home && home <= current
+                    : gap < home || home <= current;
+            if (!homeBetweenGapAndCurrent) {
+                keys[gap] = key;
+                values[gap] = values[current];
+                gap = current;
+            }
+        }
+        keys[gap] = FREE_KEY;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE_KEY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(2, expectedSize) / LOAD_FACTOR);
+        int capacity = Integer.highestOneBit((int) Math.min(1 << 30, needed));
+        return capacity < needed ? capacity << 1 : capacity;
+    }
+
+    /**
+     * Callback for primitive entries
+     */
+    @FunctionalInterface
+    public interface LongIntConsumer {
+        void accept(long key, int value);
+    }
+}
@@ -1,10 +1,22 @@
 package com.ecommerce.util;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Redis Utility Class
@@ -16,6 +28,9 @@ public class RedisUtil {
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
     
+    // Scripts are compiled once so repeated calls use EVALSHA
+    private final Map<String, RedisScript<?>> scripts = new ConcurrentHashMap<>();
+    
     /**
      * Set key-value with expiration
      */
@@ -78,6 +93,116 @@ public class RedisUtil {
     public Long decrement(String key, long delta) {
         return redisTemplate.opsForValue().decrement(key, delta);
     }
+    
+    /**
+     * Get a single hash field
+     */
+    public Object hGet(String key, String field) {
+        return redisTemplate.opsForHash().get(key, field);
+    }
+    
+    /**
+     * Get several hash fields in one round-trip
+     */
+    public List<Object> hMultiGet(String key, Collection<String> fields) {
+        return redisTemplate.opsForHash().multiGet(key, List.copyOf(fields));
+    }
+    
+    /**
+     * Set a single hash field
+     */
+    public void hPut(String key, String field, Object value) {
+        redisTemplate.opsForHash().put(key, field, value);
+    }
+    
+    /**
+     * Set a hash field only if it does not exist yet
+     */
+    public Boolean hPutIfAbsent(String key, String field, Object value) {
+        return redisTemplate.opsForHash().putIfAbsent(key, field, value);
+    }
+    
+    /**
+     * Set several hash fields in one round-trip
+     */
+    public void hPutAll(String key, Map<String, ?> entries) {
+        redisTemplate.opsForHash().putAll(key, entries);
+    }
+    
+    /**
+     * Delete hash fields
+     */
+    public Long hDelete(String key, Object... fields) {
+        return redisTemplate.opsForHash().delete(key, fields);
+    }
+    
+    /**
+     * Get several values in one round-trip (MGET)
+     * Missing keys yield null at the same position
+     */
+    public List<Object> multiGet(Collection<String> keys) {
+        return redisTemplate.opsForValue().multiGet(keys);
+    }
+    
+    /**
+     * Set several key-values without expiration in one round-trip (MSET)
+     */
+    public void multiSet(Map<String, ?> entries) {
+        redisTemplate.opsForValue().multiSet(entries);
+    }
+    
+    /**
+     * Set several key-values with the same expiration in one pipelined round-trip
+     */
+    public void multiSet(Map<String, ?> entries, long timeout, TimeUnit unit) {
+        pipelined(operations -> entries.forEach(
+            (key, value) -> operations.opsForValue().set(key, value, timeout, unit)));
+    }
+    
+    /**
+     * Delete several keys in one round-trip
+     */
+    public Long delete(Collection<String> keys) {
+        return redisTemplate.delete(keys);
+    }
+    
+    /**
+     * Set the same expiration on several keys in one pipelined round-trip
+     */
+    public void expire(Collection<String> keys, long timeout, TimeUnit unit) {
+        pipelined(operations -> keys.forEach(key -> operations.expire(key, timeout, unit)));
+    }
+    
+    /**
+     * Run several commands in one pipelined round-trip
+     * Returns the command results in issue order
+     */
+    public List<Object> pipelined(Consumer<RedisOperations<String, Object>> commands) {
+        return redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                commands.accept((RedisOperations<String, Object>) operations);
+                return null;
+            }
+        });
+    }
+    
+    /**
+     * Run a Lua script atomically
+     * Arguments are passed as plain strings; string and status replies come back as String,
+     * integer replies as Long
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T executeScript(String script, Class<T> resultType, List<String> keys, Object... args) {
+        RedisScript<T> redisScript = (RedisScript<T>) scripts.computeIfAbsent(script,
+            text -> new DefaultRedisScript<>(text, resultType));
+        Object[] stringArgs = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            stringArgs[i] = String.valueOf(args[i]);
+        }
+        StringRedisSerializer stringSerializer = StringRedisSerializer.UTF_8;
+        return redisTemplate.execute(redisScript, stringSerializer,
+            (RedisSerializer<T>) (RedisSerializer<?>) stringSerializer, keys, stringArgs);
+    }
 }
-
-
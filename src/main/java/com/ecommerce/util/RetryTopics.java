@@ -0,0 +1,88 @@
+package com.ecommerce.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Retry Topics
+ * Naming and back-off of the tiered retry topics ({topic}-retry-{N}) and the
+ * dead-letter topic ({topic}-dlt) that failed records move through
+ */
+public final class RetryTopics {
+
+    // KafkaConsumerService has one retry listener per tier
+    public static final int TIERS = 3;
+    public static final long INITIAL_DELAY_MS = 1_000;
+    public static final int MULTIPLIER = 5;
+
+    // Epoch millis before which a retry record must not be processed
+    public static final String DUE_AT_HEADER = "retry-due-at";
+
+    private static final String RETRY_SUFFIX = "-retry-";
+    private static final String DLT_SUFFIX = "-dlt";
+    private static final Pattern RETRY_TOPIC = Pattern.compile("^(.+)" + RETRY_SUFFIX + "(\\d+)$");
+
+    private RetryTopics() {
+    }
+
+    public static String retryTopic(String sourceTopic, int tier) {
+        return sourceTopic + RETRY_SUFFIX + tier;
+    }
+
+    public static String deadLetterTopic(String sourceTopic) {
+        return sourceTopic + DLT_SUFFIX;
+    }
+
+    /**
+     * Back-off before a record in the given tier (1-based) is retried: 1s, 5s, 25s
+     */
+    public static long delayMs(int tier) {
+        long delay = INITIAL_DELAY_MS;
+        for (int i = 1; i < tier; i++) {
+            delay *= MULTIPLIER;
+        }
+        return delay;
+    }
+
+    /**
+     * Tier of a retry topic, or 0 for a source topic
+     */
+    public static int tierOf(String topic) {
+        Matcher matcher = RETRY_TOPIC.matcher(topic);
+        return matcher.matches() ? Integer.parseInt(matcher.group(2)) : 0;
+    }
+
+    /**
+     * Source topic of a retry or dead-letter topic
+     */
+    public static String sourceTopicOf(String topic) {
+        Matcher matcher = RETRY_TOPIC.matcher(topic);
+        if (matcher.matches()) {
+            return matcher.group(1);
+        }
+        return topic.endsWith(DLT_SUFFIX) ? topic.substring(0, topic.length() - DLT_SUFFIX.length()) : topic;
+    }
+
+    /**
+     * Where a record that failed on the given topic goes next
+     */
+    public static String nextTopic(String topic) {
+        int tier = tierOf(topic);
+        String source = sourceTopicOf(topic);
+        return tier < TIERS ? retryTopic(source, tier + 1) : deadLetterTopic(source);
+    }
+
+    /**
+     * All retry and dead-letter topics of a source topic
+     */
+    public static List<String> derivedTopics(String sourceTopic) {
+        List<String> topics = new ArrayList<>();
+        for (int tier = 1; tier <= TIERS; tier++) {
+            topics.add(retryTopic(sourceTopic, tier));
+        }
+        topics.add(deadLetterTopic(sourceTopic));
+        return topics;
+    }
+}
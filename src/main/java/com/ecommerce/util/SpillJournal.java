@@ -0,0 +1,301 @@
+package com.ecommerce.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+/**
+ * Spill Journal
+ * Append-only FIFO of byte records in fixed-size memory-mapped segment files
+ * Each segment starts with a header holding its read position, so records that were
+ * read and committed are not returned again after a restart; fully read segments are deleted
+ * Segment layout: [magic:int][reserved:int][readPosition:long] then records of
+ * [length:int][crc32c:int][payload], terminated by a zero length
+ */
+public class SpillJournal implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpillJournal.class);
+
+    private static final int MAGIC = 0x53504C4A; // "SPLJ"
+    private static final int HEADER_BYTES = 16;
+    private static final int READ_POSITION_OFFSET = 8;
+    private static final int RECORD_OVERHEAD = 8;
+    private static final int TERMINATOR_BYTES = 4;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{20})\\.journal");
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long nextSequence = 1;
+
+    public SpillJournal(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        if (segmentBytes <= HEADER_BYTES + RECORD_OVERHEAD + TERMINATOR_BYTES || maxSegments <= 0) {
+            throw new IllegalArgumentException("Invalid journal size: segmentBytes=" + segmentBytes
+                    + ", maxSegments=" + maxSegments);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Append one record
+     * Returns false when the record does not fit into the remaining journal capacity
+     */
+    public synchronized boolean append(byte[] payload) throws IOException {
+        int needed = RECORD_OVERHEAD + payload.length + TERMINATOR_BYTES;
+        if (HEADER_BYTES + needed > segmentBytes) {
+            return false;
+        }
+        Segment tail = segments.peekLast();
+        if (tail == null || tail.writePosition + needed > segmentBytes) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            tail = createSegment();
+        }
+        MappedByteBuffer buffer = tail.buffer;
+        buffer.putInt(tail.writePosition + 4, checksum(payload));
+        buffer.put(tail.writePosition + RECORD_OVERHEAD, payload);
+        buffer.putInt(tail.writePosition + RECORD_OVERHEAD + payload.length, 0);
+        // Length last: a torn append is never mistaken for a record
+        buffer.putInt(tail.writePosition, payload.length);
+        tail.writePosition += RECORD_OVERHEAD + payload.length;
+        return true;
+    }
+
+    /**
+     * Up to maxRecords of the oldest unread records, without consuming them
+     */
+    public synchronized Batch read(int maxRecords) {
+        Segment head = segments.peekFirst();
+        List<byte[]> records = new ArrayList<>();
+        if (head == null) {
+            return new Batch(null, records, 0);
+        }
+        int position = head.readPosition;
+        while (records.size() < maxRecords && position < head.writePosition) {
+            int length = head.buffer.getInt(position);
+            byte[] payload = new byte[length];
+            head.buffer.get(position + RECORD_OVERHEAD, payload);
+            records.add(payload);
+            position += RECORD_OVERHEAD + length;
+        }
+        return new Batch(head, records, position);
+    }
+
+    /**
+     * Mark the records of a batch as consumed
+     */
+    public synchronized void commit(Batch batch) throws IOException {
+        Segment segment = batch.segment;
+        if (segment == null || batch.records.isEmpty() || segments.peekFirst() != segment) {
+            return;
+        }
+        segment.readPosition = batch.endPosition;
+        segment.buffer.putLong(READ_POSITION_OFFSET, segment.readPosition);
+        if (segment.readPosition < segment.writePosition) {
+            return;
+        }
+        if (segments.size() > 1) {
+            segments.pollFirst();
+            delete(segment);
+        } else {
+            // Last segment fully read: start over at the beginning instead of creating files
+            segment.writePosition = HEADER_BYTES;
+            segment.readPosition = HEADER_BYTES;
+            segment.buffer.putInt(HEADER_BYTES, 0);
+            segment.buffer.putLong(READ_POSITION_OFFSET, HEADER_BYTES);
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        for (Segment segment : segments) {
+            if (segment.readPosition < segment.writePosition) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bytes of records not read yet (including per-record overhead)
+     */
+    public synchronized long pendingBytes() {
+        long pending = 0;
+        for (Segment segment : segments) {
+            pending += segment.writePosition - segment.readPosition;
+        }
+        return pending;
+    }
+
+    /**
+     * Write modified pages to disk
+     * Appends already survive a process crash; this covers a machine crash
+     */
+    public synchronized void flush() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+        segments.clear();
+    }
+
+    private void recover() throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path file : stream) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    files.put(Long.parseLong(matcher.group(1)), file);
+                }
+            }
+        }
+        for (var entry : files.entrySet()) {
+            nextSequence = entry.getKey() + 1;
+            Segment segment = open(entry.getValue(), false);
+            if (segment == null) {
+                logger.warn("Skipping unreadable journal segment: {}", entry.getValue());
+                continue;
+            }
+            if (segment.readPosition >= segment.writePosition && entry.getKey() < files.lastKey()) {
+                delete(segment);
+            } else {
+                segments.addLast(segment);
+            }
+        }
+        if (!segments.isEmpty()) {
+            logger.info("Recovered spill journal: segments={}, pendingBytes={}", segments.size(), pendingBytes());
+        }
+    }
+
+    private Segment createSegment() throws IOException {
+        Path file = directory.resolve(String.format("segment-%020d.journal", nextSequence++));
+        Segment segment = open(file, true);
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private Segment open(Path file, boolean create) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        if (!create && channel.size() != segmentBytes) {
+            channel.close();
+            return null;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        Segment segment = new Segment(file, channel, buffer);
+        if (create) {
+            buffer.putInt(0, MAGIC);
+            buffer.putLong(READ_POSITION_OFFSET, HEADER_BYTES);
+            buffer.putInt(HEADER_BYTES, 0);
+            segment.readPosition = HEADER_BYTES;
+            segment.writePosition = HEADER_BYTES;
+            return segment;
+        }
+        long readPosition = buffer.getLong(READ_POSITION_OFFSET);
+        if (buffer.getInt(0) != MAGIC || readPosition < HEADER_BYTES || readPosition > segmentBytes) {
+            channel.close();
+            return null;
+        }
+        segment.readPosition = (int) readPosition;
+        segment.writePosition = scanEnd(buffer, segment.readPosition);
+        return segment;
+    }
+
+    /**
+     * End of the last intact record: stops at the terminator, a torn length or a bad checksum
+     */
+    private int scanEnd(MappedByteBuffer buffer, int position) {
+        while (position + RECORD_OVERHEAD + TERMINATOR_BYTES <= segmentBytes) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_OVERHEAD + length + TERMINATOR_BYTES > segmentBytes) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(position + RECORD_OVERHEAD, payload);
+            if (checksum(payload) != buffer.getInt(position + 4)) {
+                logger.warn("Journal record failed checksum, truncating at position {}", position);
+                break;
+            }
+            position += RECORD_OVERHEAD + length;
+        }
+        return position;
+    }
+
+    private void delete(Segment segment) throws IOException {
+        segment.channel.close();
+        try {
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            // Still mapped on some platforms; its header marks it as read, so recovery removes it
+            logger.debug("Could not delete journal segment yet: {}", segment.file, e);
+        }
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int readPosition;
+        private int writePosition;
+
+        private Segment(Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Records read from the journal, committed once they were handled
+     */
+    public static final class Batch {
+
+        private final Segment segment;
+        private final List<byte[]> records;
+        private final int endPosition;
+
+        private Batch(Segment segment, List<byte[]> records, int endPosition) {
+            this.segment = segment;
+            this.records = records;
+            this.endPosition = endPosition;
+        }
+
+        public List<byte[]> getRecords() {
+            return records;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void neverReportsAnInsertedValueAsAbsent() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long value = 0; value < 10_000; value++) {
+            filter.put(value * 7919);
+            filter.put("user" + value + "@example.com");
+        }
+
+        for (long value = 0; value < 10_000; value++) {
+            assertTrue(filter.mightContain(value * 7919));
+            assertTrue(filter.mightContain("user" + value + "@example.com"));
+        }
+    }
+
+    @Test
+    void keepsTheFalsePositiveRateNearItsTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int value = 0; value < 10_000; value++) {
+            filter.put("taken-" + value);
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int value = 0; value < probes; value++) {
+            if (filter.mightContain("free-" + value)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 0.02, "false positive rate " + rate);
+    }
+
+    @Test
+    void startsEmpty() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        assertFalse(filter.mightContain(0L));
+        assertFalse(filter.mightContain(""));
+        assertFalse(filter.mightContain("alice"));
+    }
+
+    @Test
+    void keepsConcurrentInsertions() {
+        BloomFilter filter = new BloomFilter(80_000, 0.01);
+        CompletableFuture<?>[] writers = IntStream.range(0, 8)
+                .mapToObj(writer -> CompletableFuture.runAsync(() -> {
+                    for (long value = writer; value < 80_000; value += 8) {
+                        filter.put(value);
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(writers).join();
+
+        for (long value = 0; value < 80_000; value++) {
+            assertTrue(filter.mightContain(value));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongIntHashMapTest {
+
+    private static final int MISSING = Integer.MIN_VALUE;
+
+    @Test
+    void keepsEveryEntryWhileGrowingPastItsInitialCapacity() {
+        LongIntHashMap map = new LongIntHashMap(2);
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key * 31, (int) key);
+        }
+
+        assertEquals(10_000, map.size());
+        for (long key = 1; key <= 10_000; key++) {
+            assertEquals((int) key, map.get(key * 31, MISSING));
+        }
+        assertFalse(map.containsKey(32));
+    }
+
+    @Test
+    void overwritesExistingKeys() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        map.put(42, 1);
+        map.put(42, 2);
+
+        assertEquals(1, map.size());
+        assertEquals(2, map.get(42, MISSING));
+    }
+
+    @Test
+    void storesKeyZeroAndNegativeKeys() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        map.put(0, 7);
+        map.put(-1, 8);
+        map.put(Long.MIN_VALUE, 9);
+
+        assertEquals(3, map.size());
+        assertEquals(7, map.get(0, MISSING));
+        assertEquals(8, map.get(-1, MISSING));
+        assertEquals(9, map.get(Long.MIN_VALUE, MISSING));
+
+        assertTrue(map.remove(0));
+        assertFalse(map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(MISSING, map.get(0, MISSING));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void containsKeyTellsAStoredSentinelFromAnAbsentKey() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        map.put(5, MISSING);
+        map.put(0, MISSING);
+
+        assertEquals(MISSING, map.get(5, MISSING));
+        assertTrue(map.containsKey(5));
+        assertTrue(map.containsKey(0));
+        assertFalse(map.containsKey(6));
+        assertEquals(-1, map.get(6, -1));
+    }
+
+    @Test
+    void removeKeepsLaterEntriesOfTheProbeChainReachable() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        // Few distinct keys, put and removed over and over: deletions happen inside every probe chain
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(64) + 1;
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, i);
+            } else {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+            if (i % 1000 == 0) {
+                assertSameEntries(expected, map);
+            }
+        }
+        assertSameEntries(expected, map);
+    }
+
+    @Test
+    void clearRemovesEverything() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (long key = 0; key < 100; key++) {
+            map.put(key, 1);
+        }
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(0));
+        assertFalse(map.containsKey(50));
+        map.put(50, 2);
+        assertEquals(2, map.get(50, MISSING));
+    }
+
+    private static void assertSameEntries(Map<Long, Integer> expected, LongIntHashMap map) {
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key, MISSING)));
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+}
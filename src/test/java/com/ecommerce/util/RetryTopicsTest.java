@@ -0,0 +1,55 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RetryTopicsTest {
+
+    @Test
+    void namesTiersAndDeadLetterTopicAfterTheSource() {
+        assertEquals("order-events-retry-2", RetryTopics.retryTopic("order-events", 2));
+        assertEquals("order-events-dlt", RetryTopics.deadLetterTopic("order-events"));
+        assertEquals(List.of("order-events-retry-1", "order-events-retry-2", "order-events-retry-3", "order-events-dlt"),
+                RetryTopics.derivedTopics("order-events"));
+    }
+
+    @Test
+    void movesFailedRecordsThroughEveryTierToTheDeadLetterTopic() {
+        String topic = "order-events";
+        for (int tier = 1; tier <= RetryTopics.TIERS; tier++) {
+            topic = RetryTopics.nextTopic(topic);
+            assertEquals("order-events-retry-" + tier, topic);
+        }
+        assertEquals("order-events-dlt", RetryTopics.nextTopic(topic));
+    }
+
+    @Test
+    void parsesTierAndSourceOfDerivedTopics() {
+        assertEquals(0, RetryTopics.tierOf("order-events"));
+        assertEquals(0, RetryTopics.tierOf("order-events-dlt"));
+        assertEquals(3, RetryTopics.tierOf("order-events-retry-3"));
+
+        assertEquals("order-events", RetryTopics.sourceTopicOf("order-events"));
+        assertEquals("order-events", RetryTopics.sourceTopicOf("order-events-retry-1"));
+        assertEquals("order-events", RetryTopics.sourceTopicOf("order-events-dlt"));
+    }
+
+    @Test
+    void keepsRetrySuffixesThatArePartOfTheSourceName() {
+        // Only the last suffix is the tier
+        assertEquals("jobs-retry-1", RetryTopics.sourceTopicOf("jobs-retry-1-retry-2"));
+        assertEquals(2, RetryTopics.tierOf("jobs-retry-1-retry-2"));
+        assertEquals(0, RetryTopics.tierOf("order-retry-queue"));
+        assertEquals("order-retry-queue", RetryTopics.sourceTopicOf("order-retry-queue"));
+    }
+
+    @Test
+    void growsTheDelayByTheMultiplierPerTier() {
+        assertEquals(1_000, RetryTopics.delayMs(1));
+        assertEquals(5_000, RetryTopics.delayMs(2));
+        assertEquals(25_000, RetryTopics.delayMs(3));
+    }
+}
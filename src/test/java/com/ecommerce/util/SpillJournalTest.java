@@ -0,0 +1,185 @@
+package com.ecommerce.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpillJournalTest {
+
+    private static final int SEGMENT_BYTES = 256;
+    // Header, then [length][crc32c] before each payload
+    private static final int FIRST_RECORD = 16;
+    private static final int RECORD_OVERHEAD = 8;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsRecordsInAppendOrderAcrossSegments() throws IOException {
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_BYTES, 4)) {
+            for (int i = 0; i < 20; i++) {
+                assertTrue(journal.append(payload("record-" + i)));
+            }
+            assertTrue(segmentFiles().size() > 1);
+
+            List<String> read = drain(journal);
+
+            assertEquals(20, read.size());
+            for (int i = 0; i < 20; i++) {
+                assertEquals("record-" + i, read.get(i));
+            }
+            assertTrue(journal.isEmpty());
+            assertEquals(0, journal.pendingBytes());
+        }
+    }
+
+    @Test
+    void refusesRecordsBeyondCapacity() throws IOException {
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_BYTES, 1)) {
+            assertFalse(journal.append(new byte[SEGMENT_BYTES]));
+            int appended = 0;
+            while (journal.append(payload("record-" + appended))) {
+                appended++;
+            }
+            assertTrue(appended > 0);
+            assertEquals(appended, drain(journal).size());
+        }
+    }
+
+    @Test
+    void wrapsTheLastSegmentOnceFullyRead() throws IOException {
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_BYTES, 1)) {
+            for (int round = 0; round < 5; round++) {
+                int appended = 0;
+                while (journal.append(payload(round + "-" + appended))) {
+                    appended++;
+                }
+                List<String> read = drain(journal);
+                assertEquals(appended, read.size());
+                assertEquals(round + "-0", read.get(0));
+                assertTrue(journal.isEmpty());
+            }
+            assertEquals(1, segmentFiles().size());
+        }
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_BYTES, 1)) {
+            assertTrue(journal.isEmpty());
+        }
+    }
+
+    @Test
+    void doesNotReturnCommittedRecordsAfterRestart() throws IOException {
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_BYTES, 4)) {
+            for (int i = 0; i < 20; i++) {
+                journal.append(payload("record-" + i));
+            }
+            SpillJournal.Batch batch = journal.read(3);
+            journal.commit(batch);
+            // Read but not committed: must come back
+            journal.read(2);
+        }
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_BYTES, 4)) {
+            List<String> read = drain(journal);
+            assertEquals(17, read.size());
+            assertEquals("record-3", read.get(0));
+            assertEquals("record-19", read.get(16));
+        }
+    }
+
+    @Test
+    void truncatesAtARecordWithABadChecksum() throws IOException {
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_BYTES, 1)) {
+            journal.append(payload("first"));
+            journal.append(payload("second"));
+            journal.append(payload("third"));
+        }
+        Path segment = segmentFiles().get(0);
+        int secondPayload = FIRST_RECORD + RECORD_OVERHEAD + "first".length() + RECORD_OVERHEAD;
+        writeAt(segment, secondPayload, new byte[] {'X'});
+
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_BYTES, 1)) {
+            assertEquals(List.of("first"), drain(journal));
+            // Appends continue after the last intact record
+            assertTrue(journal.append(payload("fourth")));
+            assertEquals(List.of("fourth"), drain(journal));
+        }
+    }
+
+    @Test
+    void truncatesAtATornLength() throws IOException {
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_BYTES, 1)) {
+            journal.append(payload("first"));
+            journal.append(payload("second"));
+        }
+        Path segment = segmentFiles().get(0);
+        int secondLength = FIRST_RECORD + RECORD_OVERHEAD + "first".length();
+        writeAt(segment, secondLength, ByteBuffer.allocate(4).putInt(SEGMENT_BYTES).array());
+
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_BYTES, 1)) {
+            assertEquals(List.of("first"), drain(journal));
+        }
+    }
+
+    @Test
+    void skipsSegmentsThatAreNotJournals() throws IOException {
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_BYTES, 4)) {
+            for (int i = 0; i < 40; i++) {
+                journal.append(payload("record-" + i));
+            }
+        }
+        List<Path> files = segmentFiles();
+        assertTrue(files.size() > 2);
+        writeAt(files.get(0), 0, new byte[4]);
+        Files.write(files.get(1), new byte[10]);
+
+        try (SpillJournal journal = new SpillJournal(directory, SEGMENT_BYTES, 4)) {
+            List<String> read = drain(journal);
+            assertFalse(read.isEmpty());
+            assertFalse(read.contains("record-0"));
+            assertEquals("record-39", read.get(read.size() - 1));
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static List<String> drain(SpillJournal journal) throws IOException {
+        List<String> read = new ArrayList<>();
+        while (true) {
+            SpillJournal.Batch batch = journal.read(4);
+            if (batch.getRecords().isEmpty()) {
+                return read;
+            }
+            for (byte[] record : batch.getRecords()) {
+                read.add(new String(record, StandardCharsets.UTF_8));
+            }
+            journal.commit(batch);
+        }
+    }
+
+    private static byte[] payload(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeAt(Path file, long position, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), position);
+        }
+    }
+}